@@ -0,0 +1,41 @@
+/**
+ * The days and nights of the simulation. Each day and each night lasts
+ * HALF_DAY_LENGTH steps, and step 0 is the first step of a day, so
+ * whether a step falls in the day, and how many day steps there are up
+ * to it, follow from the step alone.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class DayCycle {
+    // The number of steps in each day and in each night
+    public static final int HALF_DAY_LENGTH = 5;
+
+    /**
+     * @param step a step of the simulation
+     * @return true if the step falls in the day
+     */
+    public static boolean isDay(int step) {
+        return step / HALF_DAY_LENGTH % 2 == 0;
+    }
+
+    /**
+     * @param step a step of the simulation, at least 0
+     * @return the number of day steps from step 0 up to and including it
+     */
+    public static int daySteps(int step) {
+        int days = step / (2 * HALF_DAY_LENGTH);
+        int into = step % (2 * HALF_DAY_LENGTH);
+        return days * HALF_DAY_LENGTH + Math.min(into, HALF_DAY_LENGTH - 1) + 1;
+    }
+
+    /**
+     * The inverse of daySteps for day steps.
+     *
+     * @param count a number of day steps, at least 1
+     * @return the step that is the count'th day step from step 0
+     */
+    public static int dayStep(int count) {
+        int index = count - 1;
+        return index / HALF_DAY_LENGTH * 2 * HALF_DAY_LENGTH + index % HALF_DAY_LENGTH;
+    }
+}
@@ -1,6 +1,6 @@
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * A class to represent diseases in the simulation. The simulation will
@@ -12,16 +12,23 @@ import java.util.Random;
  * spread for a random duration and deactivated.
  * When random species get the disease their energy levels
  * decrease by a certain amount
+ * Each type of disease has a small integer id from DiseaseTypes, the
+ * species it can infect are listed in FoodWeb, and each
+ * disease keeps a list of the species it has infected, so curing them does
+ * not need the whole field to be searched.
  *
  * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
  */
 
 public abstract class Disease {
-    //Randomizer to help generate random length of the disease
-    private static final Random RAND = Randomizer.getRandom();
-
+    // The number of bytes a disease takes in a checkpoint
+    public static final int CHECKPOINT_BYTES = 9;
+    // The id of this type of disease
+    private final int id;
+    // The species infected since the disease was last deactivated. Some may
+    // since have died or been cured.
+    private List<Species> carriers;
     private int lastDiseaseStep;
-    private List<Class<?>> speciesAffected;
     private boolean isActive;
     private int duration; //no of steps the disease will run for
 
@@ -32,7 +39,8 @@ public abstract class Disease {
      * it's lastDiseaseStep is 0.
      */
     public Disease() {
-        speciesAffected = new ArrayList<>();
+        id = DiseaseTypes.idOf(getClass());
+        carriers = new ArrayList<>();
         lastDiseaseStep = 0;
         isActive = false;
         duration = 0;
@@ -68,13 +76,26 @@ public abstract class Disease {
     abstract public int getMaxDiseaseLength();
 
     /**
-     * @return the lists of species which this disease will affect
+     * @return the mask of the species type ids this disease will affect
      */
-    public List<Class<?>> getSpeciesAffected() {
-        return speciesAffected;
+    public int getSusceptibleMask() {
+        return FoodWeb.susceptibleTo(id);
     }
 
-    ;
+    /**
+     * @return the id of this type of disease
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the bit set in a species' disease mask while it carries this
+     * disease
+     */
+    public int getBit() {
+        return 1 << id;
+    }
 
     /**
      * @return the step at which the last disease was active for
@@ -107,56 +128,111 @@ public abstract class Disease {
         lastDiseaseStep = step;
     }
 
-    /**
-     * Add the species given to the list of species the disease will affect
-     *
-     * @param specie the class being added
-     */
-    public void addSpeciesAffected(Class<?> specie) {
-        speciesAffected.add(specie);
-    }
-
     /**
      * Sets the disease to be active and a random duration of disease (minimum
      * length = 10 steps)
-     * Loops through the random block of the field and infects species that can
-     * be affected by this disease.
+     * Loops through the cells of a random block of the field, in place, and
+     * infects species that can be affected by this disease.
      * Each being affected will carry this disease, by calling addDisease()
      *
      * @param field used to generate a random block from the field
      */
     public void activate(Field field) {
-        duration = RAND.nextInt(getMaxDiseaseLength()) + 10;
-        isActive = true;
+        start();
 
-        List<Location> diseaseLocations = field.getRandomBlockOfField();
+        Region region = field.getRandomRegion();
+        int susceptible = getSusceptibleMask();
 
-        for (Location location : diseaseLocations) {
-            Species speciesInCell = (Species) field.getObjectAt(location);
-            if (speciesInCell != null && getSpeciesAffected().contains(speciesInCell.getClass())) {
-                //Give the disease
-                speciesInCell.addDisease(this);
-                speciesInCell.changeEnergyLevel(getDamagePoints());
+        for (int row = region.getTop(); row <= region.getBottom(); row++) {
+            for (int col = region.getLeft(); col <= region.getRight(); col++) {
+                Species speciesInCell = field.getSpeciesAt(row, col);
+                if (speciesInCell != null && !region.isCentre(row, col)
+                        && (susceptible & (1 << speciesInCell.getTypeId())) != 0) {
+                    //Give the disease
+                    speciesInCell.addDisease(this);
+                    speciesInCell.changeEnergyLevel(getDamagePoints());
+                }
             }
         }
     }
 
     /**
      * Sets isActive to false and removes the disease from all species
-     * carrying it
+     * carrying it. Only the species it has infected are visited.
+     *
+     * @param field the field the disease was active in
      */
     public void deactivate(Field field) {
-        isActive = false;
-
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-                Species specie = (Species) field.getObjectAt(row, col);
+        stop();
 
-                if (specie != null && specie.getDiseasesCarried().contains(this)) {
-                    specie.removeDisease(this);
-                }
-            }
+        for (Species specie : carriers) {
+            specie.removeDisease(this);
         }
+        carriers.clear();
+    }
+
+    /**
+     * Write when the disease was last active, whether it is active and how
+     * long it has left to a checkpoint. Its carriers are written with the
+     * species.
+     *
+     * @param buffer the buffer to write CHECKPOINT_BYTES bytes to
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(lastDiseaseStep);
+        buffer.put((byte) (isActive ? 1 : 0));
+        buffer.putInt(duration);
+    }
+
+    /**
+     * Read the state written by writeTo back into this disease.
+     *
+     * @param buffer the buffer to read CHECKPOINT_BYTES bytes from
+     */
+    public void readFrom(ByteBuffer buffer) {
+        lastDiseaseStep = buffer.getInt();
+        isActive = buffer.get() != 0;
+        duration = buffer.getInt();
+    }
+
+    /**
+     * Record that a species has been infected. Called by
+     * Species.addDisease when the species did not already carry it.
+     *
+     * @param specie the newly infected species
+     */
+    public void addCarrier(Species specie) {
+        carriers.add(specie);
+    }
+
+    /**
+     * Return the number of live species carrying the disease. Species that
+     * have died or been cured since they were infected are dropped from the
+     * list of carriers as it is counted.
+     *
+     * @return the number of species carrying the disease
+     */
+    public int getCarrierCount() {
+        carriers.removeIf(specie -> !specie.isAlive() || !specie.doesCarryDisease(this));
+        return carriers.size();
+    }
+
+    /**
+     * Sets the disease to be active for a random duration (minimum length =
+     * 10 steps), without infecting anything. Used by activate(), and by
+     * anything infecting species itself.
+     */
+    public void start() {
+        duration = Randomizer.current().nextInt(getMaxDiseaseLength()) + 10;
+        isActive = true;
+    }
+
+    /**
+     * Sets isActive to false, without curing anything. Used by deactivate(),
+     * and by anything curing species itself.
+     */
+    public void stop() {
+        isActive = false;
     }
 
     /**
@@ -167,9 +243,9 @@ public abstract class Disease {
      */
     public void spread(Species specie, Field field) {
 
-        List<Location> adjacent = field.adjacentLocations(specie.getLocation(), 1);
-        for (Location where : adjacent) {
-            Species speciesInNextCell = (Species) field.getObjectAt(where);
+        long cell = specie.getCell();
+        for (byte direction : field.adjacentDirections(cell)) {
+            Species speciesInNextCell = field.getSpeciesAt(field.adjacentCell(cell, direction));
             if (speciesInNextCell != null) {
                 speciesInNextCell.changeEnergyLevel((getDamagePoints()));
             }
@@ -0,0 +1,42 @@
+import java.util.List;
+
+/**
+ * Gives each type of disease in the simulation a small, dense integer id.
+ * A species records the diseases it carries as a bitmask with bit id set
+ * for each, so there can be at most 32 types of disease.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class DiseaseTypes {
+    // Every concrete disease, in id order
+    private static final List<Class<? extends Disease>> TYPES = List.of(Ebola.class);
+
+    /**
+     * @return the number of disease types
+     */
+    public static int count() {
+        return TYPES.size();
+    }
+
+    /**
+     * Return the id of a class of disease.
+     *
+     * @param disease the class of the disease
+     * @return the id, between 0 and count() - 1
+     */
+    public static int idOf(Class<?> disease) {
+        int id = TYPES.indexOf(disease);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown disease: " + disease.getName());
+        }
+        return id;
+    }
+
+    /**
+     * @param id a disease id
+     * @return the class of disease with that id
+     */
+    public static Class<? extends Disease> classOf(int id) {
+        return TYPES.get(id);
+    }
+}
@@ -30,19 +30,14 @@ public class Dragon extends Predator {
 
 
     /**
-     * Create a Dragon and add the preys they hunt to the hashmap
+     * Create a Dragon. The prey they hunt are listed in FoodWeb
      *
      * @param randomAge If true, the dragon will have random age and energy level.
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      */
-    public Dragon(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
-
-        //Adding preys for dragons
-        // addPrey(Human.class);
-        addPrey(Zombie.class);
-        addPrey(HellHound.class);
+    public Dragon(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
@@ -110,10 +105,14 @@ public class Dragon extends Predator {
      *
      * @param newDragons The list which contains new species
      * @param field      The grid in which the dragon will be born
-     * @param loc        The location of the new dragon's birth
+     * @param cell       The cell of the new dragon's birth
      */
-    public void addBaby(List<Species> newDragons, Field field, Location loc) {
-        Dragon young = new Dragon(false, field, loc);
+    public void addBaby(List<Species> newDragons, Field field, long cell) {
+        // Bring back a dead dragon if the field has one to reuse.
+        Species young = field.getPool().reuse(getTypeId(), field, cell);
+        if (young == null) {
+            young = new Dragon(false, field, cell);
+        }
         //Adding new dragons, which is referencing newSpecies in Simulator
         newDragons.add(young);
     }
@@ -1,6 +1,7 @@
 /**
  * Represents the disease ebola and extends the abstract class Disease.
  * Contains the static final variables specific for this disease
+ * The species Ebola affects are listed in FoodWeb.
  *
  * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
  */
@@ -18,15 +19,6 @@ public class Ebola extends Disease {
     //The  number of steps the disease will be active
     private static final int MAX_DISEASE_LENGTH = 20;
 
-    /**
-     * Adds the species Ebola will affect to the list
-     */
-    public Ebola() {
-        addSpeciesAffected(Human.class);
-        addSpeciesAffected(Zombie.class);
-
-    }
-
     /**
      * @return the name of the disease
      */
@@ -0,0 +1,662 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An alternative store for the species in a simulation, holding each
+ * entity's state in parallel primitive arrays indexed by entity id rather
+ * than as a Species object per entity.
+ * The type id, row, column, birth step, energy level, sex and the diseases
+ * carried (as a bitmask) of entity i are type[i], row[i], col[i], and so
+ * on, and a grid of entity ids records which entity occupies each cell.
+ * An entity's age is the store's step less its birth step, so ages are
+ * never counted up.
+ * The grid has a border of ghost cells one cell wide all round it, so the
+ * eight neighbours of any cell are at fixed offsets in the grid array and
+ * finding them needs no bounds checks: a neighbour is only left out, or
+ * on a toroidal grid wrapped round to the far edge, if it is a ghost.
+ *
+ * The store runs the same behaviour as Predator.act and Plant.act over
+ * these arrays. The parameters of each type of species (maximum age,
+ * breeding probability, prey, ...) are read from the Species objects the
+ * store is loaded from, so a store can only breed types that were present
+ * when it was loaded - which is all of them at the start of a run.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class EntityStore {
+    //The probability of a species being male of female
+    private static final double DECIDE_SEX = 0.5;
+    // Marks an empty cell in the grid
+    private static final int EMPTY = -1;
+    // Marks a ghost cell of the border round the grid
+    private static final int BORDER = -2;
+    // Row and column offsets of the eight neighbouring cells
+    private static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COL_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+    // The initial number of entities there is room for
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //Randomizer to help with movement, breeding and diseases: the shared
+    //generator of the randomizer active when the store was made, never a
+    //random stream
+    private final Random rand = Randomizer.getRandom();
+    // The depth and width of the grid.
+    private final int depth, width;
+    // The distance between rows of the grid array, the width and the two
+    // ghost cells at either end of a row
+    private final int stride;
+    // Whether the edges of the grid wrap round to the opposite edge
+    private final boolean toroidal;
+    // The entity id in each cell ((row + 1) * stride + col + 1), EMPTY, or
+    // BORDER in the ghost cells
+    private final int[] grid;
+    // The difference in grid index to each neighbouring cell
+    private final int[] offsets;
+
+    // The number of entity ids in use
+    private int count;
+    // The number of steps the store has run
+    private int step;
+    // The entity acting in the current step, and the first entity born in
+    // it, so the entities between them have yet to act in it
+    private int acting;
+    private int firstBorn;
+    // The state of each entity, indexed by entity id
+    private byte[] type;
+    private int[] row;
+    private int[] col;
+    private int[] birth;
+    private int[] energy;
+    private boolean[] female;
+    private boolean[] alive;
+    private int[] diseases;
+    // The number of live entities of each type
+    private final FieldStats stats;
+
+    // The parameters of each type of species, indexed by type id
+    private final boolean[] known;
+    private final boolean[] isPlant;
+    private final boolean[] doesSleep;
+    private final int[] breedingAge;
+    private final int[] maxAge;
+    private final double[] breedingProbability;
+    private final int[] birthLimit;
+    private final int[] maxEnergy;
+    private final int[] newBornEnergy;
+    private final int[] foodLevel;
+
+    // Scratch space for neighbouring cells, so acting allocates nothing
+    private final int[] adjacent = new int[8];
+    private final int[] free = new int[8];
+
+    /**
+     * Create an empty store for a grid of the given size, with edges.
+     *
+     * @param depth The depth of the grid.
+     * @param width The width of the grid.
+     */
+    public EntityStore(int depth, int width) {
+        this(depth, width, false);
+    }
+
+    /**
+     * Create an empty store for a grid of the given size.
+     *
+     * @param depth    The depth of the grid.
+     * @param width    The width of the grid.
+     * @param toroidal true if the grid wraps round, so the cells on one
+     *                 edge are next to those on the opposite edge. The grid
+     *                 must then be at least 3 by 3, or a cell would be its
+     *                 own neighbour or the same neighbour twice.
+     * @throws IllegalArgumentException if the grid with its border has too
+     *                                  many cells for an array, or is
+     *                                  toroidal and too small
+     */
+    public EntityStore(int depth, int width, boolean toroidal) {
+        if (((long) depth + 2) * ((long) width + 2) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A grid of " + depth + " by " + width
+                    + " has too many cells to store");
+        }
+        if (toroidal && (depth < 3 || width < 3)) {
+            throw new IllegalArgumentException("A toroidal grid must be at least 3 by 3, not "
+                    + depth + " by " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.toroidal = toroidal;
+        stride = width + 2;
+        grid = new int[(depth + 2) * stride];
+        Arrays.fill(grid, BORDER);
+        for (int r = 0; r < depth; r++) {
+            Arrays.fill(grid, cellOf(r, 0), cellOf(r, 0) + width, EMPTY);
+        }
+        offsets = new int[ROW_OFFSETS.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = ROW_OFFSETS[i] * stride + COL_OFFSETS[i];
+        }
+
+        type = new byte[INITIAL_CAPACITY];
+        row = new int[INITIAL_CAPACITY];
+        col = new int[INITIAL_CAPACITY];
+        birth = new int[INITIAL_CAPACITY];
+        energy = new int[INITIAL_CAPACITY];
+        female = new boolean[INITIAL_CAPACITY];
+        alive = new boolean[INITIAL_CAPACITY];
+        diseases = new int[INITIAL_CAPACITY];
+
+        int types = SpeciesTypes.count();
+        known = new boolean[types];
+        isPlant = new boolean[types];
+        doesSleep = new boolean[types];
+        breedingAge = new int[types];
+        maxAge = new int[types];
+        breedingProbability = new double[types];
+        birthLimit = new int[types];
+        maxEnergy = new int[types];
+        newBornEnergy = new int[types];
+        foodLevel = new int[types];
+
+        stats = new FieldStats();
+    }
+
+    /**
+     * Create a store holding the species currently in the given field.
+     *
+     * @param field    The field to copy.
+     * @param toroidal true if the store's grid is to wrap round
+     * @return A store with one entity for each species in the field.
+     */
+    public static EntityStore load(Field field, boolean toroidal) {
+        EntityStore store = new EntityStore(field.getDepth(), field.getWidth(), toroidal);
+        for (long cell = field.nextOccupiedCell(0); cell >= 0; cell = field.nextOccupiedCell(cell + 1)) {
+            Species specie = field.getSpeciesAt(cell);
+            if (specie != null) {
+                store.add(specie, field.getRow(cell), field.getCol(cell));
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Add an entity copying the state of the given species.
+     *
+     * @param specie The species to copy.
+     * @param r      The row it occupies.
+     * @param c      The column it occupies.
+     */
+    public void add(Species specie, int r, int c) {
+        int t = specie.getTypeId();
+        if (!known[t]) {
+            learnType(specie);
+        }
+        int id = add(t, r, c, specie.getAge(), specie.getEnergyLevel(), specie.getIsFemale());
+        diseases[id] = specie.getDiseaseMask();
+        if (diseases[id] != 0) {
+            stats.incrementInfected();
+        }
+    }
+
+    /**
+     * Run one step of every entity alive at the start of the step.
+     * Entities born during the step first act in the next one.
+     *
+     * @param isDay              Determines if the simulation is in day or night time
+     * @param diseaseBeingSpread The disease being spread (can be null)
+     * @param weatherOccurring   The weather event occurring (can be null)
+     */
+    public void step(boolean isDay, Disease diseaseBeingSpread, Weather weatherOccurring) {
+        int spreading = diseaseBeingSpread == null ? 0 : diseaseBeingSpread.getBit();
+        int damage = diseaseBeingSpread == null ? 0 : diseaseBeingSpread.getDamagePoints();
+        int weatherMask = weatherMask(weatherOccurring);
+        boolean raining = weatherOccurring != null && weatherOccurring.getClass() == Rain.class;
+
+        step++;
+        firstBorn = count;
+        for (int id = 0; id < firstBorn; id++) {
+            acting = id;
+            if (alive[id]) {
+                if (isPlant[type[id]]) {
+                    actPlant(id, isDay, spreading, damage, weatherMask, raining);
+                } else {
+                    actPredator(id, isDay, spreading, damage, weatherMask);
+                }
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Start the disease and infect the species it affects in a random block
+     * of the grid, as Disease.activate does for a field.
+     *
+     * @param disease The disease breaking out.
+     */
+    public void activate(Disease disease) {
+        disease.start();
+        int bit = disease.getBit();
+        int affected = disease.getSusceptibleMask();
+
+        Region region = Region.randomBlock(depth, width, rand);
+        for (int r = region.getTop(); r <= region.getBottom(); r++) {
+            for (int c = region.getLeft(); c <= region.getRight(); c++) {
+                int id = grid[cellOf(r, c)];
+                if (id != EMPTY && !region.isCentre(r, c) && (affected & (1 << type[id])) != 0) {
+                    if (diseases[id] == 0) {
+                        stats.incrementInfected();
+                    }
+                    diseases[id] |= bit;
+                    changeEnergy(id, disease.getDamagePoints());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the disease and cure every entity carrying it.
+     *
+     * @param disease The disease ending.
+     */
+    public void deactivate(Disease disease) {
+        disease.stop();
+        int cured = ~disease.getBit();
+        for (int id = 0; id < count; id++) {
+            if (alive[id] && diseases[id] != 0 && (diseases[id] & cured) == 0) {
+                stats.decrementInfected();
+            }
+            diseases[id] &= cured;
+        }
+    }
+
+    /**
+     * @param typeId a species type id
+     * @return the number of live entities of that type
+     */
+    public int getCount(int typeId) {
+        return stats.getCount(typeId);
+    }
+
+    /**
+     * @return true if there is more than one type of species alive
+     */
+    public boolean isViable() {
+        return stats.isViable();
+    }
+
+    /**
+     * @return A string describing the population of the store.
+     */
+    public String getPopulationDetails() {
+        return stats.getPopulationDetails();
+    }
+
+    /**
+     * @return the counts of the species in the store
+     */
+    public FieldStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return the number of live entities carrying at least one disease.
+     */
+    public int getInfectedCount() {
+        return stats.getInfectedCount();
+    }
+
+    /**
+     * @return true if the edges of the grid wrap round
+     */
+    public boolean isToroidal() {
+        return toroidal;
+    }
+
+    /**
+     * @return the number of entity ids in use, live or dead
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * What Predator.act does, for entity id.
+     */
+    private void actPredator(int id, boolean isDay, int spreading, int damage, int weatherMask) {
+        int t = type[id];
+        checkAge(id);
+
+        if (doesSleep[t] && !isDay) {
+            return;
+        }
+
+        changeEnergy(id, -1);
+        if (alive[id]) {
+            if ((diseases[id] & spreading) != 0) {
+                spread(id, damage);
+            }
+            if ((weatherMask & (1 << t)) != 0) {
+                changeEnergy(id, maxEnergy[t]);
+            }
+
+            giveBirth(id, true);
+            // Move towards a source of food if found.
+            int newCell = findFood(id);
+            if (newCell == EMPTY) {
+                // No food found - try to move to a free location.
+                newCell = freeAdjacentCells(id) > 0 ? free[0] : EMPTY;
+            }
+            // See if it was possible to move.
+            if (newCell != EMPTY) {
+                move(id, newCell);
+            } else {
+                // Overcrowding.
+                kill(id);
+            }
+        }
+    }
+
+    /**
+     * What Plant.act does, for entity id.
+     */
+    private void actPlant(int id, boolean isDay, int spreading, int damage, int weatherMask, boolean raining) {
+        int t = type[id];
+        checkAge(id);
+
+        if (doesSleep[t] && !isDay) {
+            return;
+        }
+
+        if (alive[id]) {
+            giveBirth(id, false);
+            if ((diseases[id] & spreading) != 0) {
+                spread(id, damage);
+            }
+            if ((weatherMask & (1 << t)) != 0) {
+                changeEnergy(id, maxEnergy[t]);
+            }
+            if (!raining) {
+                changeEnergy(id, -1);
+            }
+        }
+    }
+
+    /**
+     * New births are made into free adjacent cells. Predators need a mate
+     * next to them and have a random number of births; plants always have
+     * their maximum.
+     */
+    private void giveBirth(int id, boolean needsMate) {
+        int t = type[id];
+        int freeCells = freeAdjacentCells(id);
+        int births = 0;
+        if (ageOf(id) >= breedingAge[t] && (!needsMate || hasMate(id))
+                && rand.nextDouble() <= breedingProbability[t]) {
+            births = needsMate ? rand.nextInt(birthLimit[t]) + 1 : birthLimit[t];
+        }
+        for (int b = 0; b < births && b < freeCells; b++) {
+            int cell = free[b];
+            int baby = add(t, rowOf(cell), colOf(cell), 0, 0, rand.nextDouble() <= DECIDE_SEX);
+            changeEnergy(baby, newBornEnergy[t]);
+        }
+    }
+
+    /**
+     * @return true if a male of the same type that can breed is next to
+     * entity id, and id is female.
+     */
+    private boolean hasMate(int id) {
+        int n = adjacentCells(id);
+        for (int i = 0; i < n; i++) {
+            int other = grid[adjacent[i]];
+            if (other != EMPTY && type[other] == type[id] && female[id] && !female[other]
+                    && ageOf(other) >= breedingAge[type[other]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Eat the first live prey found next to entity id.
+     *
+     * @return the cell the prey was in, or EMPTY if none was found.
+     */
+    private int findFood(int id) {
+        int prey = FoodWeb.preyOf(type[id]);
+        int n = adjacentCells(id);
+        for (int i = 0; i < n; i++) {
+            int food = grid[adjacent[i]];
+            if (food != EMPTY && (prey & (1 << type[food])) != 0 && alive[food]) {
+                kill(food);
+                changeEnergy(id, foodLevel[type[food]]);
+                return adjacent[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Damage every entity next to entity id.
+     */
+    private void spread(int id, int damage) {
+        int n = adjacentCells(id);
+        for (int i = 0; i < n; i++) {
+            int other = grid[adjacent[i]];
+            if (other != EMPTY) {
+                changeEnergy(other, damage);
+            }
+        }
+    }
+
+    /**
+     * Fill adjacent with the cells next to entity id, in a random order.
+     *
+     * @return the number of cells.
+     */
+    private int adjacentCells(int id) {
+        int cell = cellOf(row[id], col[id]);
+        int n = 0;
+        for (int offset : offsets) {
+            int next = cell + offset;
+            if (grid[next] != BORDER) {
+                adjacent[n++] = next;
+            } else if (toroidal) {
+                adjacent[n++] = wrap(next);
+            }
+        }
+        // Shuffle, as Field.adjacentLocations does.
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int swap = adjacent[i];
+            adjacent[i] = adjacent[j];
+            adjacent[j] = swap;
+        }
+        return n;
+    }
+
+    /**
+     * Fill free with the empty cells next to entity id, in a random order.
+     *
+     * @return the number of cells.
+     */
+    private int freeAdjacentCells(int id) {
+        int n = adjacentCells(id);
+        int freeCells = 0;
+        for (int i = 0; i < n; i++) {
+            if (grid[adjacent[i]] == EMPTY) {
+                free[freeCells++] = adjacent[i];
+            }
+        }
+        return freeCells;
+    }
+
+    /**
+     * Change the energy level of entity id as Species.changeEnergyLevel does,
+     * killing it if it drops to zero.
+     */
+    private void changeEnergy(int id, int change) {
+        int newEnergy = energy[id] + change;
+        if (newEnergy <= 0) {
+            kill(id);
+        } else {
+            energy[id] = Math.min(newEnergy, maxEnergy[type[id]]);
+        }
+    }
+
+    /**
+     * Kill entity id, at the start of its act, if it is past its maximum age.
+     */
+    private void checkAge(int id) {
+        if (step - birth[id] > maxAge[type[id]]) {
+            kill(id);
+        }
+    }
+
+    /**
+     * Return the age of entity id: the number of steps it has acted in,
+     * counting the current step once its act in it has begun.
+     */
+    private int ageOf(int id) {
+        int age = step - birth[id];
+        return id > acting && id < firstBorn ? age - 1 : age;
+    }
+
+    private void move(int id, int cell) {
+        grid[cellOf(row[id], col[id])] = EMPTY;
+        grid[cell] = id;
+        row[id] = rowOf(cell);
+        col[id] = colOf(cell);
+    }
+
+    /**
+     * @return the index in the grid array of the cell at row r, column c
+     */
+    private int cellOf(int r, int c) {
+        return (r + 1) * stride + c + 1;
+    }
+
+    /**
+     * @return the row of the cell with the given grid index
+     */
+    private int rowOf(int cell) {
+        return cell / stride - 1;
+    }
+
+    /**
+     * @return the column of the cell with the given grid index
+     */
+    private int colOf(int cell) {
+        return cell % stride - 1;
+    }
+
+    /**
+     * @return the cell on the far edge of the grid that a ghost cell
+     * stands for when the grid wraps round
+     */
+    private int wrap(int ghost) {
+        int r = Math.floorMod(rowOf(ghost), depth);
+        int c = Math.floorMod(colOf(ghost), width);
+        return cellOf(r, c);
+    }
+
+    private void kill(int id) {
+        if (alive[id]) {
+            alive[id] = false;
+            stats.decrementCount(type[id]);
+            if (diseases[id] != 0) {
+                stats.decrementInfected();
+            }
+            grid[cellOf(row[id], col[id])] = EMPTY;
+        }
+    }
+
+    /**
+     * Add a live entity and place it in the grid.
+     *
+     * @return the new entity's id.
+     */
+    private int add(int t, int r, int c, int startAge, int startEnergy, boolean isFemale) {
+        if (count == type.length) {
+            grow();
+        }
+        int id = count++;
+        type[id] = (byte) t;
+        row[id] = r;
+        col[id] = c;
+        birth[id] = step - startAge;
+        energy[id] = startEnergy;
+        female[id] = isFemale;
+        alive[id] = true;
+        diseases[id] = 0;
+        grid[cellOf(r, c)] = id;
+        stats.incrementCount(t);
+        return id;
+    }
+
+    /**
+     * Remove dead entities by moving the last live entity into each gap,
+     * keeping the ids in use contiguous.
+     */
+    private void compact() {
+        int id = 0;
+        while (id < count) {
+            if (alive[id]) {
+                id++;
+            } else {
+                int last = --count;
+                if (last != id) {
+                    type[id] = type[last];
+                    row[id] = row[last];
+                    col[id] = col[last];
+                    birth[id] = birth[last];
+                    energy[id] = energy[last];
+                    female[id] = female[last];
+                    alive[id] = alive[last];
+                    diseases[id] = diseases[last];
+                    if (alive[id]) {
+                        grid[cellOf(row[id], col[id])] = id;
+                    }
+                }
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = type.length * 2;
+        type = Arrays.copyOf(type, capacity);
+        row = Arrays.copyOf(row, capacity);
+        col = Arrays.copyOf(col, capacity);
+        birth = Arrays.copyOf(birth, capacity);
+        energy = Arrays.copyOf(energy, capacity);
+        female = Arrays.copyOf(female, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        diseases = Arrays.copyOf(diseases, capacity);
+    }
+
+    /**
+     * Record the parameters of a type of species from one of its instances.
+     */
+    private void learnType(Species specie) {
+        int t = specie.getTypeId();
+        known[t] = true;
+        isPlant[t] = specie instanceof Plant;
+        doesSleep[t] = specie.getDoesSleep();
+        breedingAge[t] = specie.getBreedingAge();
+        maxAge[t] = specie.getMaxAge();
+        breedingProbability[t] = specie.getBreedingProbability();
+        birthLimit[t] = specie.getBirthLimit();
+        maxEnergy[t] = specie.getMaxEnergyLevel();
+        newBornEnergy[t] = specie.getNewBornEnergyLevel();
+        foodLevel[t] = specie.getFoodLevel();
+    }
+
+    /**
+     * @return a mask with bit t set if the weather affects type t. Rain,
+     * the only weather, restores the energy of the species it affects.
+     */
+    private int weatherMask(Weather weather) {
+        if (weather == null) {
+            return 0;
+        }
+        return FoodWeb.affectedBy(weather.getId());
+    }
+}
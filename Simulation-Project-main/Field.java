@@ -1,8 +1,29 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 
 /**
  * Represent a rectangular grid of field positions.
  * Each position is able to store a single animal.
+ * The grid is held as occupant ids, indexed by row * width + col, and
+ * each species placed in the field is given an occupant id while it is
+ * alive. Id 0 means the position is empty. The grid is cut into chunks of
+ * 4096 consecutive cells that are only made once one of their cells is
+ * occupied and are freed again between steps once they empty, so a large
+ * field that is mostly empty holds little more than a reference for each
+ * chunk.
+ * Positions are passed around as these long cell indices, so nothing is
+ * allocated as animals move and a field may have more than 2^31 positions;
+ * Location is only used at the edges, by the view and older callers.
+ * Each chunk also keeps a bitplane for each type of species, with the bit
+ * for a cell set while that type is in it, and another with the bits of the
+ * males of each type old enough to breed, which are made and freed with it.
+ * Looking for prey or a mate next to a cell then only reads a few words of
+ * bits from the chunks holding the rows above, at and below it.
+ * Species in cells far enough apart may be placed and moved from different
+ * threads at once; handing out and releasing occupant ids is synchronized,
+ * and bits, chunks and chunk counts are set atomically, as cells of
+ * different threads can share a word or a chunk.
  * 
  * @author David J. Barnes and Michael Kölling,
  * Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
@@ -10,13 +31,67 @@ import java.util.*;
  */
 public class Field
 {
-    // A random number generator for providing random locations.
+    // A random number generator for building the tables of orderings.
     private static final Random rand = Randomizer.getRandom();
     
+    // The occupant id meaning a position is empty.
+    private static final int EMPTY = 0;
+    // Row and column offsets of the eight adjacent positions, by direction.
+    private static final int[] ROW_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COL_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+    // Borders a position can be on, combined as bits of a border class.
+    private static final int TOP = 1, BOTTOM = 2, LEFT = 4, RIGHT = 8;
+    // The most random orderings of the directions kept for each border class.
+    private static final int MAX_ORDERINGS = 1024;
+    // Random orderings of the directions of the positions adjacent to one
+    // with each border class, so positions off the edge are never produced.
+    // Border classes with few directions have every ordering of them.
+    private static final byte[][][] ORDERINGS = createOrderings();
+    // The initial number of occupant ids there is room for.
+    private static final int INITIAL_OCCUPANTS = 256;
+    // Atomic access to the words of the bitplanes.
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    // The number of cells in a chunk is 1 << CHUNK_SHIFT, which fill
+    // CHUNK_WORDS words of each bitplane.
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_CELLS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_CELLS - 1;
+    private static final int CHUNK_WORDS = CHUNK_CELLS >>> 6;
+    // Atomic access to the chunks and to their counts of occupied cells.
+    private static final VarHandle CHUNKS = MethodHandles.arrayElementVarHandle(Chunk[].class);
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(int[].class);
+
     // The depth and width of the field.
     private int depth, width;
-    // Storage for the animals.
-    private Object[][] field;
+    // The chunks of consecutive cells, indexed by cell >>> CHUNK_SHIFT.
+    // A chunk is only made when a cell of it is first occupied, and is null
+    // while none of its cells are.
+    private Chunk[] chunks;
+    // The number of occupied cells in each chunk.
+    private int[] chunkCounts;
+    // The number of cells in the field, depth * width.
+    private long cellCount;
+    // The species with each occupant id; occupants[EMPTY] is always null.
+    private Species[] occupants;
+    // Occupant ids that have been released and can be given out again.
+    private int[] freeIds;
+    private int freeCount;
+    // The lowest occupant id that has never been given out.
+    private int nextId;
+    // The difference in cell index to the adjacent position, by direction.
+    private int[] cellOffsets;
+    // The number of each type of species in the field.
+    private FieldStats stats;
+    // The dead species of the field kept to be reused as newborns.
+    private SpeciesPool pool;
+    // The current step of the simulation, from which species work out
+    // their ages.
+    private int step;
+    // The number of types of species, and so the index in a chunk's planes
+    // of the first breeding male plane.
+    private int typeCount;
+    // Whether every cell must be treated as changed, as after a clear.
+    private boolean allChanged;
 
     /**
      * Represent a field of the given dimensions.
@@ -25,30 +100,98 @@ public class Field
      */
     public Field(int depth, int width)
     {
+        long chunkCount = ((long) depth * width + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if(chunkCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A field of " + depth + " by " + width
+                                               + " has too many cells to index");
+        }
         this.depth = depth;
         this.width = width;
-        field = new Object[depth][width];
+        cellCount = (long) depth * width;
+        chunks = new Chunk[(int) chunkCount];
+        chunkCounts = new int[(int) chunkCount];
+        occupants = new Species[INITIAL_OCCUPANTS];
+        freeIds = new int[INITIAL_OCCUPANTS];
+        nextId = EMPTY + 1;
+        stats = new FieldStats();
+        pool = new SpeciesPool();
+        typeCount = SpeciesTypes.count();
+        allChanged = true;
+        cellOffsets = new int[ROW_OFFSETS.length];
+        for(int direction = 0; direction < cellOffsets.length; direction++) {
+            cellOffsets[direction] = ROW_OFFSETS[direction] * width + COL_OFFSETS[direction];
+        }
     }
     
     /**
-     * Empty the field.
+     * Empty the field, releasing every occupant id and dropping the dead
+     * species kept for reuse.
      */
     public void clear()
     {
-        for(int row = 0; row < depth; row++) {
-            for(int col = 0; col < width; col++) {
-                field[row][col] = null;
-            }
-        }
+        Arrays.fill(chunks, null);
+        Arrays.fill(chunkCounts, 0);
+        Arrays.fill(occupants, null);
+        freeCount = 0;
+        nextId = EMPTY + 1;
+        stats.reset();
+        pool.clear();
+        allChanged = true;
     }
     
     /**
-     * Clear the given location.
+     * Clear the given location. The animal that was there keeps its
+     * occupant id, as it is normally being moved elsewhere.
      * @param location The location to clear.
      */
     public void clear(Location location)
     {
-        field[location.getRow()][location.getCol()] = null;
+        clear(index(location.getRow(), location.getCol()));
+    }
+    
+    /**
+     * Clear the given cell. The animal that was there keeps its
+     * occupant id, as it is normally being moved elsewhere.
+     * @param cell The cell index, as given by getCell.
+     */
+    public void clear(long cell)
+    {
+        Chunk chunk = chunks[chunkIndex(cell)];
+        int offset = (int) cell & CHUNK_MASK;
+        if(chunk == null || chunk.ids[offset] == EMPTY) {
+            return;
+        }
+        Species animal = occupants[chunk.ids[offset]];
+        if(animal != null) {
+            clearBit(chunk.planes[animal.getTypeId()], offset);
+            clearBit(chunk.planes[typeCount + animal.getTypeId()], offset);
+            setBit(chunk.changed, offset);
+        }
+        chunk.ids[offset] = EMPTY;
+        COUNTS.getAndAdd(chunkCounts, chunkIndex(cell), -1);
+    }
+    
+    /**
+     * Release the occupant id of an animal that has left the field for
+     * good, so the id can be given to another. The animal's location
+     * should already have been cleared.
+     * @param animal The animal leaving the field.
+     */
+    public synchronized void release(Species animal)
+    {
+        int id = animal.getOccupantId();
+        if(id != EMPTY && occupants[id] == animal) {
+            occupants[id] = null;
+            stats.decrementCount(animal.getTypeId());
+            if(animal.isInfected()) {
+                stats.decrementInfected();
+            }
+            if(freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+        animal.setOccupantId(EMPTY);
     }
     
     /**
@@ -59,9 +202,221 @@ public class Field
      * @param row Row coordinate of the location.
      * @param col Column coordinate of the location.
      */
-    public void place(Object animal, int row, int col)
+    public void place(Species animal, int row, int col)
+    {
+        place(animal, index(row, col));
+    }
+    
+    /**
+     * Place an animal in the given cell.
+     * If there is already an animal in the cell it will
+     * be lost.
+     * @param animal The animal to be placed.
+     * @param cell The cell index, as given by getCell.
+     */
+    public void place(Species animal, long cell)
     {
-        place(animal, new Location(row, col));
+        int id = animal.getOccupantId();
+        if(id == EMPTY || occupants[id] != animal) {
+            id = register(animal);
+        }
+        Chunk chunk = chunks[chunkIndex(cell)];
+        if(chunk == null) {
+            chunk = allocateChunk(chunkIndex(cell));
+        }
+        int offset = (int) cell & CHUNK_MASK;
+        if(chunk.ids[offset] != EMPTY) {
+            clear(cell);
+        }
+        chunk.ids[offset] = id;
+        COUNTS.getAndAdd(chunkCounts, chunkIndex(cell), 1);
+        setBit(chunk.planes[animal.getTypeId()], offset);
+        setBit(chunk.changed, offset);
+        if(isBreedingMale(animal)) {
+            setBit(chunk.planes[typeCount + animal.getTypeId()], offset);
+        }
+    }
+    
+    /**
+     * Record that the look of a cell has changed although its occupant has
+     * not, as when the occupant becomes infected or is cured.
+     * @param cell The cell index, as given by getCell.
+     */
+    public void markChanged(long cell)
+    {
+        Chunk chunk = chunks[chunkIndex(cell)];
+        if(chunk != null) {
+            setBit(chunk.changed, (int) cell & CHUNK_MASK);
+        }
+    }
+    
+    /**
+     * Record that the occupant of a cell has caught its first disease, or
+     * been cured of its last, so the cell looks different and the count
+     * of infected species changes.
+     * @param cell The cell index, as given by getCell.
+     * @param infected true if the occupant is now infected.
+     */
+    public synchronized void markInfected(long cell, boolean infected)
+    {
+        markChanged(cell);
+        if(infected) {
+            stats.incrementInfected();
+        }
+        else {
+            stats.decrementInfected();
+        }
+    }
+    
+    /**
+     * Take the cells that have changed occupant, or whose occupant has
+     * changed infection, since the last call, and start recording afresh.
+     * A cell may be listed although it changed back again.
+     * @return The changed cell indices in increasing order, or null if the
+     * whole field must be treated as changed, as after a clear.
+     */
+    public long[] takeChangedCells()
+    {
+        if(allChanged) {
+            allChanged = false;
+            for(Chunk chunk : chunks) {
+                if(chunk != null) {
+                    Arrays.fill(chunk.changed, 0);
+                }
+            }
+            return null;
+        }
+        int count = 0;
+        for(Chunk chunk : chunks) {
+            if(chunk != null) {
+                for(long word : chunk.changed) {
+                    count += Long.bitCount(word);
+                }
+            }
+        }
+        long[] taken = new long[count];
+        int next = 0;
+        for(int index = 0; index < chunks.length; index++) {
+            Chunk chunk = chunks[index];
+            if(chunk == null) {
+                continue;
+            }
+            for(int wordIndex = 0; wordIndex < CHUNK_WORDS; wordIndex++) {
+                long word = chunk.changed[wordIndex];
+                while(word != 0) {
+                    taken[next++] = ((long) index << CHUNK_SHIFT) + (wordIndex << 6)
+                                    + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+                chunk.changed[wordIndex] = 0;
+            }
+        }
+        return taken;
+    }
+    
+    /**
+     * Return the first occupied cell at or after the given one. Chunks
+     * with nothing in them are skipped without their cells being looked
+     * at, so scans of a mostly empty field go by the occupied chunks:
+     * <pre>
+     *     for(long cell = field.nextOccupiedCell(0); cell >= 0;
+     *             cell = field.nextOccupiedCell(cell + 1)) {
+     *         ...
+     *     }
+     * </pre>
+     * @param cell The cell index to start from, as given by getCell.
+     * @return The index of the first occupied cell from there, or -1 if
+     * there is none.
+     */
+    public long nextOccupiedCell(long cell)
+    {
+        int offset = (int) cell & CHUNK_MASK;
+        for(long index = cell >>> CHUNK_SHIFT; index < chunks.length; index++) {
+            Chunk chunk = chunks[(int) index];
+            if(chunk != null && chunkCounts[(int) index] > 0) {
+                long start = index << CHUNK_SHIFT;
+                int end = (int) Math.min(CHUNK_CELLS, cellCount - start);
+                for(; offset < end; offset++) {
+                    if(chunk.ids[offset] != EMPTY) {
+                        return start + offset;
+                    }
+                }
+            }
+            offset = 0;
+        }
+        return -1;
+    }
+    
+    /**
+     * Free the chunks that no longer have any cell occupied, along with
+     * their bitplanes. Chunks are not freed the moment they empty, since a
+     * lone animal moving within one would free and remake it at every move;
+     * so this should be called once a step, while no species are acting.
+     * A chunk holding changes that have not been taken is kept until they
+     * are, unless the whole field is to be treated as changed anyway.
+     */
+    public void releaseEmptyChunks()
+    {
+        for(int index = 0; index < chunks.length; index++) {
+            Chunk chunk = chunks[index];
+            if(chunk != null && chunkCounts[index] == 0 && (allChanged || !chunk.hasChanges())) {
+                chunks[index] = null;
+            }
+        }
+    }
+    
+    /**
+     * Record whether an animal in the field is now a male old enough to
+     * breed. Must be called whenever the age or sex of an animal in the
+     * field changes in a way that could change this.
+     * @param animal The animal whose age or sex has changed.
+     */
+    public void updateBreeding(Species animal)
+    {
+        long cell = animal.getCell();
+        if(cell < 0) {
+            return;
+        }
+        Chunk chunk = chunks[chunkIndex(cell)];
+        if(chunk == null) {
+            return;
+        }
+        long[] plane = chunk.planes[typeCount + animal.getTypeId()];
+        if(isBreedingMale(animal)) {
+            setBit(plane, (int) cell & CHUNK_MASK);
+        }
+        else {
+            clearBit(plane, (int) cell & CHUNK_MASK);
+        }
+    }
+    
+    /**
+     * Return whether any of the cells adjacent to the given one holds a
+     * species of one of the given types.
+     * @param typeMask The types being looked for, with bit t set for type id t.
+     * @param cell The cell index, as given by getCell.
+     * @return true if one of the adjacent cells holds one of the types.
+     */
+    public boolean hasAdjacent(int typeMask, long cell)
+    {
+        for(int typeId = 0; typeMask >>> typeId != 0; typeId++) {
+            if((typeMask & (1 << typeId)) != 0 && anyAdjacent(typeId, cell)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Return whether any of the cells adjacent to the given one holds a
+     * male of the given type old enough to breed.
+     * @param typeId The type id of the species.
+     * @param cell The cell index, as given by getCell.
+     * @return true if an adjacent cell holds such a male.
+     */
+    public boolean hasAdjacentBreedingMale(int typeId, long cell)
+    {
+        return anyAdjacent(typeCount + typeId, cell);
     }
     
     /**
@@ -71,30 +426,236 @@ public class Field
      * @param animal The animal to be placed.
      * @param location Where to place the animal.
      */
-    public void place(Object animal, Location location)
+    public void place(Species animal, Location location)
+    {
+        place(animal, location.getRow(), location.getCol());
+    }
+    
+    /**
+     * Return the animal at the given location, if any.
+     * @param location Where in the field.
+     * @return The animal at the given location, or null if there is none.
+     */
+    public Species getSpeciesAt(Location location)
+    {
+        return getSpeciesAt(location.getRow(), location.getCol());
+    }
+    
+    /**
+     * Return the animal at the given location, if any.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The animal at the given location, or null if there is none.
+     */
+    public Species getSpeciesAt(int row, int col)
+    {
+        return occupants[occupantAt(index(row, col))];
+    }
+    
+    /**
+     * Return the animal in the given cell, if any.
+     * @param cell The cell index, as given by getCell.
+     * @return The animal in the cell, or null if there is none.
+     */
+    public Species getSpeciesAt(long cell)
+    {
+        return occupants[occupantAt(cell)];
+    }
+    
+    /**
+     * @param cell The cell index, as given by getCell.
+     * @return true if there is no animal in the cell.
+     */
+    public boolean isEmpty(long cell)
+    {
+        return occupantAt(cell) == EMPTY;
+    }
+    
+    /**
+     * Return the index of a position in the field's cells.
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The cell index, row * width + col.
+     */
+    public long getCell(int row, int col)
+    {
+        return index(row, col);
+    }
+    
+    /**
+     * @param cell A cell index, as given by getCell.
+     * @return The row of the cell.
+     */
+    public int getRow(long cell)
+    {
+        return (int) (cell / width);
+    }
+    
+    /**
+     * @param cell A cell index, as given by getCell.
+     * @return The column of the cell.
+     */
+    public int getCol(long cell)
+    {
+        return (int) (cell % width);
+    }
+    
+    /**
+     * @return The number of cells in the field, depth * width.
+     */
+    public long getCellCount()
+    {
+        return cellCount;
+    }
+    
+    /**
+     * @param cell A cell index, as given by getCell.
+     * @return A new Location for the cell.
+     */
+    public Location getLocation(long cell)
+    {
+        return new Location(getRow(cell), getCol(cell));
+    }
+    
+    /**
+     * Return the directions of the positions adjacent to the given one, in a
+     * random order. Only directions that stay within the field are included,
+     * so corners have three and edges five.
+     * The array comes from a precomputed table and is shared: it must not be
+     * modified. Nothing is allocated, so this is the way for code that is
+     * run for every animal on every step to visit its neighbours:
+     * <pre>
+     *     for(byte direction : field.adjacentDirections(cell)) {
+     *         long next = field.adjacentCell(cell, direction);
+     *         ...
+     *     }
+     * </pre>
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The directions of the adjacent positions, in random order.
+     */
+    public byte[] adjacentDirections(int row, int col)
+    {
+        int border = 0;
+        if(row == 0) {
+            border |= TOP;
+        }
+        if(row == depth - 1) {
+            border |= BOTTOM;
+        }
+        if(col == 0) {
+            border |= LEFT;
+        }
+        if(col == width - 1) {
+            border |= RIGHT;
+        }
+        byte[][] orderings = ORDERINGS[border];
+        return orderings[Randomizer.current().nextInt(orderings.length)];
+    }
+    
+    /**
+     * Return the directions of the cells adjacent to the given one, in a
+     * random order, as adjacentDirections(row, col) does.
+     * @param cell The cell index, as given by getCell.
+     * @return The directions of the adjacent cells, in random order.
+     */
+    public byte[] adjacentDirections(long cell)
     {
-        field[location.getRow()][location.getCol()] = animal;
+        return adjacentDirections(getRow(cell), getCol(cell));
+    }
+    
+    /**
+     * Return the cell adjacent to a cell in the given direction.
+     * @param cell The cell index, as given by getCell.
+     * @param direction A direction from adjacentDirections.
+     * @return The index of the adjacent cell.
+     */
+    public long adjacentCell(long cell, int direction)
+    {
+        return cell + cellOffsets[direction];
+    }
+    
+    /**
+     * Return the first free cell adjacent to the given position, in a
+     * random order. Allocates nothing.
+     * @param row The row of the position.
+     * @param col The column of the position.
+     * @return The index of a free adjacent cell, or -1 if there is none.
+     */
+    public long freeAdjacentCell(int row, int col)
+    {
+        return freeAdjacentCell(index(row, col));
+    }
+    
+    /**
+     * Return the first free cell adjacent to the given cell, in a
+     * random order. Allocates nothing.
+     * @param cell The cell index, as given by getCell.
+     * @return The index of a free adjacent cell, or -1 if there is none.
+     */
+    public long freeAdjacentCell(long cell)
+    {
+        for(byte direction : adjacentDirections(cell)) {
+            long next = cell + cellOffsets[direction];
+            if(occupantAt(next) == EMPTY) {
+                return next;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Return the occupant id at the given location.
+     * @param row The desired row.
+     * @param col The desired column.
+     * @return The occupant id, or 0 if the location is empty.
+     */
+    public int getOccupantId(int row, int col)
+    {
+        return occupantAt(index(row, col));
+    }
+    
+    /**
+     * Return the occupant id in the given cell.
+     * @param cell The cell index, as given by getCell.
+     * @return The occupant id, or 0 if the cell is empty.
+     */
+    public int getOccupantId(long cell)
+    {
+        return occupantAt(cell);
+    }
+    
+    /**
+     * Return the animal with the given occupant id.
+     * @param id An occupant id.
+     * @return The animal, or null if no animal has that id.
+     */
+    public Species getOccupant(int id)
+    {
+        return occupants[id];
     }
     
     /**
      * Return the animal at the given location, if any.
+     * Kept for code that does not need a Species; prefer getSpeciesAt.
      * @param location Where in the field.
      * @return The animal at the given location, or null if there is none.
      */
     public Object getObjectAt(Location location)
     {
-        return getObjectAt(location.getRow(), location.getCol());
+        return getSpeciesAt(location);
     }
     
     /**
      * Return the animal at the given location, if any.
+     * Kept for code that does not need a Species; prefer getSpeciesAt.
      * @param row The desired row.
      * @param col The desired column.
      * @return The animal at the given location, or null if there is none.
      */
     public Object getObjectAt(int row, int col)
     {
-        return field[row][col];
+        return getSpeciesAt(row, col);
     }
     
     /**
@@ -107,8 +668,9 @@ public class Field
      */
     public Location randomAdjacentLocation(Location location)
     {
-        List<Location> adjacent = adjacentLocations(location, 1);
-        return adjacent.get(0);
+        long cell = index(location.getRow(), location.getCol());
+        byte[] directions = adjacentDirections(location.getRow(), location.getCol());
+        return getLocation(cell + cellOffsets[directions[0]]);
     }
     
     /**
@@ -118,11 +680,12 @@ public class Field
      */
     public List<Location> getFreeAdjacentLocations(Location location)
     {
-        List<Location> free = new LinkedList<>();
-        List<Location> adjacent = adjacentLocations(location, 1);
-        for(Location next : adjacent) {
-            if(getObjectAt(next) == null) {
-                free.add(next);
+        List<Location> free = new ArrayList<>(ROW_OFFSETS.length);
+        long cell = index(location.getRow(), location.getCol());
+        for(byte direction : adjacentDirections(location.getRow(), location.getCol())) {
+            long next = cell + cellOffsets[direction];
+            if(occupantAt(next) == EMPTY) {
+                free.add(getLocation(next));
             }
         }
         return free;
@@ -138,10 +701,9 @@ public class Field
      */
     public Location freeAdjacentLocation(Location location)
     {
-        // The available free ones.
-        List<Location> free = getFreeAdjacentLocations(location);
-        if(free.size() > 0) {
-            return free.get(0);
+        long free = freeAdjacentCell(location.getRow(), location.getCol());
+        if(free >= 0) {
+            return getLocation(free);
         }
         else {
             return null;
@@ -182,44 +744,64 @@ public class Field
             
             // Shuffle the list. Several other methods rely on the list
             // being in a random order.
-            Collections.shuffle(locations, rand);
+            Collections.shuffle(locations, Randomizer.current());
         }
         return locations;
     }
 
 
     /**
-     * -----------------FIX THIS COMMENT!!!-----------
-     * Return a list of locations which are in a certain area of the field
-     * Random percentage generated to decide minimum number of locations from
-     * the field.
-     * Random location is generated and adjacentLocations() is called
-     * to generate extra locations around it based on the minimum number of
-     * locations. (While loop is used to ensure once minimum number of locations
-     * has been met - adjacentLocations() isn't called again
-     * @return A list of locations in a random area of the field
-     */
-    public List<Location> getRandomBlockOfField(){
-
-        //Generating random size field
-        int maxPercentageOfField = 50;
-        int percentageOfField = rand.nextInt(maxPercentageOfField) + 1;
-        int minNumberOfLocations = (percentageOfField * depth * width) / 100;
-
-        Location randLocation = new Location(rand.nextInt(width), rand.nextInt(depth));
-
-        List<Location> ls = new ArrayList<>();
-        ls.add(randLocation);
-
-        int i = 0;
-        while(ls.size() <= minNumberOfLocations) {
-            i++;
-            ls = adjacentLocations(randLocation, i);
-        }
-
-        return ls;
+     * Return a random block of the field, such as the area a disease
+     * breaks out in. A random percentage of the field, up to half, is
+     * chosen along with a random centre, and the block is the smallest
+     * square around the centre holding more cells than that, not counting
+     * the centre. Only the bounds of the block are worked out; no cells are
+     * visited and nothing is allocated but the region.
+     * @return A random block of the field.
+     */
+    public Region getRandomRegion()
+    {
+        return Region.randomBlock(depth, width, Randomizer.current());
     }
 
+    /**
+     * Return the counts of each type of species in the field, which are
+     * kept up to date as species enter and leave it.
+     * @return The statistics of the field.
+     */
+    public FieldStats getStats()
+    {
+        return stats;
+    }
+    
+    /**
+     * Return the pool of dead species that newborns in this field are
+     * made from when it has one of their type.
+     * @return The species pool of the field.
+     */
+    public SpeciesPool getPool()
+    {
+        return pool;
+    }
+    
+    /**
+     * @return The current step of the simulation.
+     */
+    public int getStep()
+    {
+        return step;
+    }
+    
+    /**
+     * Move the field's clock on to the given step. Species work out their
+     * ages from it, so it must be set before they act.
+     * @param step The current step of the simulation.
+     */
+    public void setStep(int step)
+    {
+        this.step = step;
+    }
+    
     /**
      * Return the depth of the field.
      * @return The depth of the field.
@@ -237,4 +819,273 @@ public class Field
     {
         return width;
     }
+    
+    /**
+     * @return The position of the given row and column in the cells.
+     */
+    private long index(int row, int col)
+    {
+        return (long) row * width + col;
+    }
+    
+    /**
+     * @return The index of the chunk holding the given cell.
+     */
+    private static int chunkIndex(long cell)
+    {
+        return (int) (cell >>> CHUNK_SHIFT);
+    }
+    
+    /**
+     * @return The occupant id in the given cell, or EMPTY if its chunk has
+     * not been made.
+     */
+    private int occupantAt(long cell)
+    {
+        Chunk chunk = chunks[chunkIndex(cell)];
+        return chunk == null ? EMPTY : chunk.ids[(int) cell & CHUNK_MASK];
+    }
+    
+    /**
+     * Make the chunk with the given index. Species in different tiles may
+     * be placed in the same chunk at once, so if another thread makes it
+     * first, its chunk is used.
+     * @return The chunk now in place.
+     */
+    private Chunk allocateChunk(int index)
+    {
+        Chunk chunk = new Chunk(typeCount);
+        Chunk existing = (Chunk) CHUNKS.compareAndExchange(chunks, index, null, chunk);
+        return existing == null ? chunk : existing;
+    }
+    
+    /**
+     * @return true if the animal is a male old enough to breed.
+     */
+    private static boolean isBreedingMale(Species animal)
+    {
+        return !animal.getIsFemale() && animal.canBreed();
+    }
+    
+    /**
+     * @return true if the bit of any cell adjacent to the given one is set
+     * in the plane with the given index in the chunks' planes. The three
+     * cells above, and the three below, may each span two chunks.
+     */
+    private boolean anyAdjacent(int plane, long cell)
+    {
+        int col = getCol(cell);
+        long from = col > 0 ? cell - 1 : cell;
+        long to = col < width - 1 ? cell + 1 : cell;
+        if(cell >= width && anySet(plane, from - width, to - width)) {
+            return true;
+        }
+        if(cell + width < cellCount && anySet(plane, from + width, to + width)) {
+            return true;
+        }
+        return (from < cell && isSet(plane, from)) || (to > cell && isSet(plane, to));
+    }
+    
+    /**
+     * @return true if any of the bits of the cells from one index to
+     * another, inclusive, is set in the plane with the given index. The
+     * cells may span two chunks.
+     */
+    private boolean anySet(int plane, long from, long to)
+    {
+        Chunk first = chunks[chunkIndex(from)];
+        int fromOffset = (int) from & CHUNK_MASK;
+        int toOffset = (int) to & CHUNK_MASK;
+        if(chunkIndex(from) == chunkIndex(to)) {
+            return first != null && anySet(first.planes[plane], fromOffset, toOffset);
+        }
+        Chunk last = chunks[chunkIndex(to)];
+        return (first != null && anySet(first.planes[plane], fromOffset, CHUNK_MASK))
+            || (last != null && anySet(last.planes[plane], 0, toOffset));
+    }
+    
+    /**
+     * @return true if the bit of the given cell is set in the plane with
+     * the given index.
+     */
+    private boolean isSet(int plane, long cell)
+    {
+        Chunk chunk = chunks[chunkIndex(cell)];
+        int offset = (int) cell & CHUNK_MASK;
+        return chunk != null && (chunk.planes[plane][offset >>> 6] & (1L << offset)) != 0;
+    }
+    
+    /**
+     * @return true if any of the bits from one index to another, inclusive,
+     * is set in the plane words. The bits may span two words.
+     */
+    private static boolean anySet(long[] plane, int from, int to)
+    {
+        int first = from >>> 6;
+        int last = to >>> 6;
+        if(first == last) {
+            return (plane[first] & ((-1L >>> (63 - (to - from))) << from)) != 0;
+        }
+        return (plane[first] & (-1L << from)) != 0
+            || (plane[last] & (-1L >>> (63 - (to & 63)))) != 0;
+    }
+    
+    /**
+     * Atomically set the bit with the given index in the plane words.
+     */
+    private static void setBit(long[] plane, int bit)
+    {
+        WORDS.getAndBitwiseOr(plane, bit >>> 6, 1L << bit);
+    }
+    
+    /**
+     * Atomically clear the bit with the given index in the plane words.
+     */
+    private static void clearBit(long[] plane, int bit)
+    {
+        WORDS.getAndBitwiseAnd(plane, bit >>> 6, ~(1L << bit));
+    }
+    
+    /**
+     * Build the table of random orderings of adjacent directions for each
+     * border class.
+     * @return The orderings, indexed by border class.
+     */
+    private static byte[][][] createOrderings()
+    {
+        byte[][][] orderings = new byte[(TOP | BOTTOM | LEFT | RIGHT) + 1][][];
+        for(int border = 0; border < orderings.length; border++) {
+            // The directions that stay inside the field.
+            byte[] directions = new byte[ROW_OFFSETS.length];
+            int count = 0;
+            for(int direction = 0; direction < ROW_OFFSETS.length; direction++) {
+                boolean outside = (ROW_OFFSETS[direction] < 0 && (border & TOP) != 0)
+                        || (ROW_OFFSETS[direction] > 0 && (border & BOTTOM) != 0)
+                        || (COL_OFFSETS[direction] < 0 && (border & LEFT) != 0)
+                        || (COL_OFFSETS[direction] > 0 && (border & RIGHT) != 0);
+                if(!outside) {
+                    directions[count++] = (byte) direction;
+                }
+            }
+            directions = Arrays.copyOf(directions, count);
+
+            int permutations = 1;
+            for(int n = 2; n <= count; n++) {
+                permutations *= n;
+            }
+            if(permutations <= MAX_ORDERINGS) {
+                // Few enough to have every ordering, so each is equally likely.
+                orderings[border] = new byte[permutations][];
+                for(int p = 0; p < permutations; p++) {
+                    orderings[border][p] = permutation(directions, p);
+                }
+            }
+            else {
+                orderings[border] = new byte[MAX_ORDERINGS][];
+                for(int p = 0; p < MAX_ORDERINGS; p++) {
+                    byte[] ordering = directions.clone();
+                    for(int i = ordering.length - 1; i > 0; i--) {
+                        int j = rand.nextInt(i + 1);
+                        byte swap = ordering[i];
+                        ordering[i] = ordering[j];
+                        ordering[j] = swap;
+                    }
+                    orderings[border][p] = ordering;
+                }
+            }
+        }
+        return orderings;
+    }
+    
+    /**
+     * @return The n-th permutation of the given values, counting in the
+     * factorial number system.
+     */
+    private static byte[] permutation(byte[] values, int n)
+    {
+        List<Byte> remaining = new ArrayList<>();
+        for(byte value : values) {
+            remaining.add(value);
+        }
+        byte[] result = new byte[values.length];
+        for(int i = 0; i < result.length; i++) {
+            int choices = remaining.size();
+            result[i] = remaining.remove(n % choices);
+            n /= choices;
+        }
+        return result;
+    }
+    
+    /**
+     * Give an animal an occupant id not in use, reusing released ones first.
+     * @param animal The animal entering the field.
+     * @return The animal's new occupant id.
+     */
+    private synchronized int register(Species animal)
+    {
+        int id = allocateId();
+        occupants[id] = animal;
+        animal.setOccupantId(id);
+        stats.incrementCount(animal.getTypeId());
+        if(animal.isInfected()) {
+            stats.incrementInfected();
+        }
+        return id;
+    }
+    
+    /**
+     * @return An occupant id not in use, reusing released ones first.
+     */
+    private int allocateId()
+    {
+        if(freeCount > 0) {
+            return freeIds[--freeCount];
+        }
+        if(nextId == occupants.length) {
+            occupants = Arrays.copyOf(occupants, occupants.length * 2);
+        }
+        return nextId++;
+    }
+    
+    /**
+     * The cells of one chunk of the field: their occupant ids and their
+     * words of each bitplane, which are made together when a cell of the
+     * chunk is first occupied and freed together once it empties.
+     */
+    private static class Chunk
+    {
+        // The occupant id in each cell of the chunk.
+        private final int[] ids;
+        // The words of the bitplanes for the cells of the chunk: those of
+        // the type planes by type id, then those of the breeding male
+        // planes by type id.
+        private final long[][] planes;
+        // The bits of the cells whose occupant or its infection may have
+        // changed since the changes were last taken.
+        private final long[] changed;
+        
+        /**
+         * Make an empty chunk.
+         * @param typeCount The number of types of species.
+         */
+        Chunk(int typeCount)
+        {
+            ids = new int[CHUNK_CELLS];
+            planes = new long[2 * typeCount][CHUNK_WORDS];
+            changed = new long[CHUNK_WORDS];
+        }
+        
+        /**
+         * @return true if any cell of the chunk has a change not yet taken.
+         */
+        boolean hasChanges()
+        {
+            for(long word : changed) {
+                if(word != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
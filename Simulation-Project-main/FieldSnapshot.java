@@ -0,0 +1,229 @@
+import java.util.Arrays;
+
+/**
+ * An immutable picture of the simulation after a step, holding everything
+ * the view shows: the code of what is drawn in each cell that has changed,
+ * and the step, time of day, disease, weather and population text.
+ * A snapshot is either full, holding every cell, or holds only the cells
+ * that changed since the previous snapshot; the view keeps the codes it
+ * has drawn and repaints just those cells.
+ * The engine makes a snapshot on the simulation thread and hands it to the
+ * view, which draws it on the Swing event thread; since neither the cells
+ * nor the text change afterwards, the view never looks at the live field.
+ * A full snapshot holds a code for every cell in an array, so only fields
+ * of at most 2^31 - 1 cells can be snapshotted whole.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public final class FieldSnapshot {
+    // The code of a cell holding an infected species; cells holding a
+    // healthy species have the species' type id
+    public static final byte INFECTED = (byte) SpeciesTypes.count();
+    // The code of an empty cell
+    public static final byte EMPTY = (byte) (INFECTED + 1);
+
+    private final int step;
+    private final boolean isDay;
+    private final String diseaseText;
+    private final String weatherText;
+    private final String populationDetails;
+    private final int depth;
+    private final int width;
+    // The changed cell indices in increasing order, or null if every cell
+    // is held
+    private final long[] changedCells;
+    // The code of each changed cell, or of every cell if full, in the
+    // same order as changedCells
+    private final byte[] codes;
+
+    /**
+     * Take a snapshot of a field.
+     *
+     * @param step              the step the simulation is at
+     * @param isDay             true if it is daytime
+     * @param diseaseText       the name of the disease spreading, or "none"
+     * @param weatherText       the name of the weather occurring, or "clear"
+     * @param populationDetails a description of the population
+     * @param field             the field to copy the cells of
+     * @param changedCells      the cells that changed since the last
+     *                          snapshot in increasing order, or null to
+     *                          copy every cell
+     * @throws IllegalArgumentException if every cell is to be copied and
+     *                                  the field has too many for an array
+     */
+    public FieldSnapshot(int step, boolean isDay, String diseaseText, String weatherText,
+                         String populationDetails, Field field, long[] changedCells) {
+        this.step = step;
+        this.isDay = isDay;
+        this.diseaseText = diseaseText;
+        this.weatherText = weatherText;
+        this.populationDetails = populationDetails;
+        depth = field.getDepth();
+        width = field.getWidth();
+        this.changedCells = changedCells;
+        if (changedCells == null) {
+            if (field.getCellCount() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("A field of " + depth + " by " + width
+                        + " has too many cells to snapshot whole");
+            }
+            codes = new byte[(int) field.getCellCount()];
+            Arrays.fill(codes, EMPTY);
+            for (long cell = field.nextOccupiedCell(0); cell >= 0; cell = field.nextOccupiedCell(cell + 1)) {
+                codes[(int) cell] = codeOf(field.getSpeciesAt(cell));
+            }
+        } else {
+            codes = new byte[changedCells.length];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = codeOf(field.getSpeciesAt(changedCells[i]));
+            }
+        }
+    }
+
+    /**
+     * Create a snapshot with the status of another and the given cells.
+     */
+    private FieldSnapshot(FieldSnapshot status, long[] changedCells, byte[] codes) {
+        step = status.step;
+        isDay = status.isDay;
+        diseaseText = status.diseaseText;
+        weatherText = status.weatherText;
+        populationDetails = status.populationDetails;
+        depth = status.depth;
+        width = status.width;
+        this.changedCells = changedCells;
+        this.codes = codes;
+    }
+
+    /**
+     * Combine this snapshot with an older one that was never drawn, so
+     * that the cells which changed in either are drawn.
+     *
+     * @param older the snapshot taken before this one, or null
+     * @return a snapshot with the status of this one and the cells of both
+     */
+    public FieldSnapshot after(FieldSnapshot older) {
+        if (older == null || isFull()) {
+            return this;
+        }
+        if (older.isFull()) {
+            byte[] merged = older.codes.clone();
+            for (int i = 0; i < changedCells.length; i++) {
+                merged[(int) changedCells[i]] = codes[i];
+            }
+            return new FieldSnapshot(this, null, merged);
+        }
+        // Both lists of cells are in increasing order, so merge them as
+        // they are, taking the newer code of a cell in both.
+        long[] mergedCells = new long[changedCells.length + older.changedCells.length];
+        byte[] mergedCodes = new byte[mergedCells.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < changedCells.length || j < older.changedCells.length) {
+            if (j == older.changedCells.length
+                    || (i < changedCells.length && changedCells[i] <= older.changedCells[j])) {
+                if (j < older.changedCells.length && changedCells[i] == older.changedCells[j]) {
+                    j++;
+                }
+                mergedCells[count] = changedCells[i];
+                mergedCodes[count++] = codes[i++];
+            } else {
+                mergedCells[count] = older.changedCells[j];
+                mergedCodes[count++] = older.codes[j++];
+            }
+        }
+        return new FieldSnapshot(this, Arrays.copyOf(mergedCells, count), Arrays.copyOf(mergedCodes, count));
+    }
+
+    /**
+     * @return true if the snapshot holds every cell, not just those that
+     * changed
+     */
+    public boolean isFull() {
+        return changedCells == null;
+    }
+
+    /**
+     * @return the number of cells held
+     */
+    public int getChangedCount() {
+        return codes.length;
+    }
+
+    /**
+     * @param i the position of a held cell, from 0 to getChangedCount() - 1
+     * @return the index of the cell, row * width + col
+     */
+    public long getChangedCell(int i) {
+        return changedCells == null ? i : changedCells[i];
+    }
+
+    /**
+     * @param i the position of a held cell, from 0 to getChangedCount() - 1
+     * @return the code of the cell: a species type id, INFECTED or EMPTY
+     */
+    public byte getChangedCode(int i) {
+        return codes[i];
+    }
+
+    /**
+     * @return the step the simulation was at
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return true if it was daytime
+     */
+    public boolean getIsDay() {
+        return isDay;
+    }
+
+    /**
+     * @return the name of the disease that was spreading, or "none"
+     */
+    public String getDiseaseText() {
+        return diseaseText;
+    }
+
+    /**
+     * @return the name of the weather that was occurring, or "clear"
+     */
+    public String getWeatherText() {
+        return weatherText;
+    }
+
+    /**
+     * @return a description of the population
+     */
+    public String getPopulationDetails() {
+        return populationDetails;
+    }
+
+    /**
+     * @return the depth of the field
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the width of the field
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the code of what is drawn for a species, or for an empty cell
+     */
+    private static byte codeOf(Species animal) {
+        if (animal == null) {
+            return EMPTY;
+        } else if (animal.isInfected()) {
+            return INFECTED;
+        }
+        return (byte) animal.getTypeId();
+    }
+}
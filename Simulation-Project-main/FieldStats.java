@@ -1,128 +1,174 @@
-import java.awt.Color;
-import java.util.HashMap;
-
 /**
- * This class collects and provides some statistical data on the state 
- * of a field. It is flexible: it will create and maintain a counter 
- * for any class of object that is found within the field.
- * 
- * @author David J. Barnes and Michael Kölling
+ * This class collects and provides some statistical data on the state
+ * of a field. It keeps a count of each type of species, indexed by
+ * type id, which is kept up to date as species enter and leave the
+ * field, so the counts never need the field to be scanned. It also
+ * counts the species of each type that entered and left the field since
+ * the start of the current step, and the species that are infected, for
+ * telemetry.
+ *
+ * @author David J. Barnes and Michael Kölling,
+ * Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
  * @version 2016.02.29
  */
 public class FieldStats
 {
-    // Counters for each type of entity (fox, rabbit, etc.) in the simulation.
-    private HashMap<Class, Counter> counters;
-    // Whether the counters are currently up to date.
-    private boolean countsValid;
+    // The number of each type of species in the field, by type id.
+    private int[] counts;
+    // Whether each type of species has been in the field since the last reset.
+    private boolean[] seen;
+    // How many types of species have a count above zero.
+    private int typesAlive;
+    // How many of the species carry at least one disease.
+    private int infected;
+    // The number of each type of species that entered and left the field
+    // since startStep was last called, by type id.
+    private int[] births;
+    private int[] deaths;
 
     /**
      * Construct a FieldStats object.
      */
     public FieldStats()
     {
-        // Set up a collection for counters for each type of animal that
-        // we might find
-        counters = new HashMap<>();
-        countsValid = true;
+        counts = new int[SpeciesTypes.count()];
+        seen = new boolean[SpeciesTypes.count()];
+        births = new int[SpeciesTypes.count()];
+        deaths = new int[SpeciesTypes.count()];
+        typesAlive = 0;
     }
 
     /**
      * Get details of what is in the field.
      * @return A string describing what is in the field.
      */
-    public String getPopulationDetails(Field field)
+    public String getPopulationDetails()
     {
-        StringBuffer buffer = new StringBuffer();
-        if(!countsValid) {
-            generateCounts(field);
-        }
-        for(Class key : counters.keySet()) {
-            Counter info = counters.get(key);
-            buffer.append(info.getName());
-            buffer.append(": ");
-            buffer.append(info.getCount());
-            buffer.append(' ');
+        StringBuilder buffer = new StringBuilder();
+        for(int typeId = 0; typeId < counts.length; typeId++) {
+            if(seen[typeId]) {
+                buffer.append(SpeciesTypes.classOf(typeId).getName());
+                buffer.append(": ");
+                buffer.append(counts[typeId]);
+                buffer.append(' ');
+            }
         }
         return buffer.toString();
     }
-    
+
     /**
-     * Invalidate the current set of statistics; reset all 
-     * counts to zero.
+     * Reset all counts to zero, as for an empty field.
      */
     public void reset()
     {
-        countsValid = false;
-        for(Class key : counters.keySet()) {
-            Counter count = counters.get(key);
-            count.reset();
+        for(int typeId = 0; typeId < counts.length; typeId++) {
+            counts[typeId] = 0;
+            seen[typeId] = false;
         }
+        typesAlive = 0;
+        infected = 0;
+        startStep();
     }
 
     /**
-     * Increment the count for one class of animal.
-     * @param animalClass The class of animal to increment.
+     * Start counting the births and deaths of a new step from zero.
      */
-    public void incrementCount(Class animalClass)
+    public void startStep()
     {
-        Counter count = counters.get(animalClass);
-        if(count == null) {
-            // We do not have a counter for this species yet.
-            // Create one.
-            count = new Counter(animalClass.getName());
-            counters.put(animalClass, count);
+        for(int typeId = 0; typeId < counts.length; typeId++) {
+            births[typeId] = 0;
+            deaths[typeId] = 0;
         }
-        count.increment();
     }
 
     /**
-     * Indicate that an animal count has been completed.
+     * Increment the count for one type of species, as one enters the field.
+     * @param typeId The type id of the species.
      */
-    public void countFinished()
+    public void incrementCount(int typeId)
     {
-        countsValid = true;
+        if(counts[typeId]++ == 0) {
+            typesAlive++;
+        }
+        seen[typeId] = true;
+        births[typeId]++;
     }
 
     /**
-     * Determine whether the simulation is still viable.
-     * I.e., should it continue to run.
-     * @return true If there is more than one species alive.
+     * Decrement the count for one type of species, as one leaves the field.
+     * @param typeId The type id of the species.
      */
-    public boolean isViable(Field field)
+    public void decrementCount(int typeId)
     {
-        // How many counts are non-zero.
-        int nonZero = 0;
-        if(!countsValid) {
-            generateCounts(field);
-        }
-        for(Class key : counters.keySet()) {
-            Counter info = counters.get(key);
-            if(info.getCount() > 0) {
-                nonZero++;
-            }
+        if(--counts[typeId] == 0) {
+            typesAlive--;
         }
-        return nonZero > 1;
+        deaths[typeId]++;
     }
-    
+
     /**
-     * Generate counts of the number of foxes and rabbits.
-     * These are not kept up to date as foxes and rabbits
-     * are placed in the field, but only when a request
-     * is made for the information.
-     * @param field The field to generate the stats for.
+     * Count one more infected species, as a species in the field catches
+     * its first disease or an infected one enters the field.
      */
-    private void generateCounts(Field field)
+    public void incrementInfected()
     {
-        reset();
-        for(int row = 0; row < field.getDepth(); row++) {
-            for(int col = 0; col < field.getWidth(); col++) {
-                Object animal = field.getObjectAt(row, col);
-                if(animal != null) {
-                    incrementCount(animal.getClass());
-                }
-            }
-        }
-        countsValid = true;
+        infected++;
+    }
+
+    /**
+     * Count one fewer infected species, as a species in the field is cured
+     * of its last disease or an infected one leaves the field.
+     */
+    public void decrementInfected()
+    {
+        infected--;
+    }
+
+    /**
+     * @return The number of species in the field carrying at least one
+     * disease.
+     */
+    public int getInfectedCount()
+    {
+        return infected;
+    }
+
+    /**
+     * @param typeId The type id of a species.
+     * @return The number of that type of species in the field.
+     */
+    public int getCount(int typeId)
+    {
+        return counts[typeId];
+    }
+
+    /**
+     * @param typeId The type id of a species.
+     * @return The number of that type of species that entered the field
+     * since the start of the step.
+     */
+    public int getBirths(int typeId)
+    {
+        return births[typeId];
+    }
+
+    /**
+     * @param typeId The type id of a species.
+     * @return The number of that type of species that left the field
+     * since the start of the step.
+     */
+    public int getDeaths(int typeId)
+    {
+        return deaths[typeId];
+    }
+
+    /**
+     * Determine whether the simulation is still viable.
+     * I.e., should it continue to run.
+     * @return true If there is more than one species alive.
+     */
+    public boolean isViable()
+    {
+        return typesAlive > 1;
     }
 }
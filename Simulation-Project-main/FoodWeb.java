@@ -0,0 +1,117 @@
+/**
+ * Records which species eat which, which species each disease can infect,
+ * and which species each weather affects, as bitmasks over species type
+ * ids. Bit t of a mask is set if the species with type id t is included,
+ * so asking whether a zombie can eat a human is a single AND.
+ * The masks are shared by every instance, and are built once from the
+ * relationships listed below.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class FoodWeb {
+    // The species each type of species eats, by type id
+    private static final int[] PREY = new int[SpeciesTypes.count()];
+    // The species each disease can infect, by disease id
+    private static final int[] SUSCEPTIBLE = new int[DiseaseTypes.count()];
+    // The species each weather affects, by weather id
+    private static final int[] AFFECTED = new int[WeatherTypes.count()];
+
+    static {
+        eats(Zombie.class, Human.class);
+        eats(Human.class, Human.class);
+        eats(Dragon.class, Zombie.class);
+        eats(Dragon.class, HellHound.class);
+        eats(HellHound.class, Zombie.class);
+
+        infects(Ebola.class, Human.class);
+        infects(Ebola.class, Zombie.class);
+
+        affects(Rain.class, Plant.class);
+    }
+
+    /**
+     * @param typeId a species type id
+     * @return the mask of the species it eats
+     */
+    public static int preyOf(int typeId) {
+        return PREY[typeId];
+    }
+
+    /**
+     * @param predatorId the type id of the species hunting
+     * @param preyId     the type id of the species being hunted
+     * @return true if the first species eats the second
+     */
+    public static boolean canEat(int predatorId, int preyId) {
+        return (PREY[predatorId] & (1 << preyId)) != 0;
+    }
+
+    /**
+     * @param diseaseId a disease id
+     * @return the mask of the species the disease can infect
+     */
+    public static int susceptibleTo(int diseaseId) {
+        return SUSCEPTIBLE[diseaseId];
+    }
+
+    /**
+     * @param diseaseId a disease id
+     * @param typeId    a species type id
+     * @return true if the disease can infect the species
+     */
+    public static boolean canInfect(int diseaseId, int typeId) {
+        return (SUSCEPTIBLE[diseaseId] & (1 << typeId)) != 0;
+    }
+
+    /**
+     * @param weatherId a weather id
+     * @return the mask of the species the weather affects
+     */
+    public static int affectedBy(int weatherId) {
+        return AFFECTED[weatherId];
+    }
+
+    /**
+     * @param weatherId a weather id
+     * @param typeId    a species type id
+     * @return true if the weather affects the species
+     */
+    public static boolean isAffected(int weatherId, int typeId) {
+        return (AFFECTED[weatherId] & (1 << typeId)) != 0;
+    }
+
+    /**
+     * Record that a species eats another, and every subclass of it.
+     */
+    private static void eats(Class<?> predator, Class<?> prey) {
+        PREY[SpeciesTypes.idOf(predator)] |= typesOf(prey);
+    }
+
+    /**
+     * Record that a disease can infect a species, and every subclass of it.
+     */
+    private static void infects(Class<?> disease, Class<?> specie) {
+        SUSCEPTIBLE[DiseaseTypes.idOf(disease)] |= typesOf(specie);
+    }
+
+    /**
+     * Record that a weather affects a species, and every subclass of it.
+     */
+    private static void affects(Class<?> weather, Class<?> specie) {
+        AFFECTED[WeatherTypes.idOf(weather)] |= typesOf(specie);
+    }
+
+    /**
+     * @return the mask of the species types that are the given class or a
+     * subclass of it, such as every plant for Plant.class
+     */
+    private static int typesOf(Class<?> specie) {
+        int mask = 0;
+        for (int t = 0; t < SpeciesTypes.count(); t++) {
+            if (specie.isAssignableFrom(SpeciesTypes.classOf(t))) {
+                mask |= 1 << t;
+            }
+        }
+        return mask;
+    }
+}
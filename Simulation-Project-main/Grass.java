@@ -20,8 +20,8 @@ public class Grass extends Plant{
     //Determines if grass sleep at night
     private static final boolean DOES_SLEEP = true;
 
-    public Grass(boolean randomAge, Field field, Location location){
-        super(randomAge, field, location);
+    public Grass(boolean randomAge, Field field, long cell){
+        super(randomAge, field, cell);
 
     }
 
@@ -89,10 +89,14 @@ public class Grass extends Plant{
      *
      * @param newGrass The list which contains new species
      * @param field      The grid in which the dragon will be born
-     * @param loc        The location of the new dragon's birth
+     * @param cell       The cell of the new dragon's birth
      */
-    public void addBaby(List<Species> newGrass, Field field, Location loc) {
-        Grass babyPlant = new Grass(false, field, loc);
+    public void addBaby(List<Species> newGrass, Field field, long cell) {
+        // Bring back a dead grass if the field has one to reuse.
+        Species babyPlant = field.getPool().reuse(getTypeId(), field, cell);
+        if (babyPlant == null) {
+            babyPlant = new Grass(false, field, cell);
+        }
         //Adding new plants, which is referencing newSpecies in Simulator
         newGrass.add(babyPlant);
     }
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the simulation without a graphical view, for long batch runs.
+ * No Swing or AWT classes are used: each step is run by a
+ * SimulationEngine with no painting or delay between steps, and the
+ * speed of the run is reported when it finishes.
+ *
+ * Usage: java HeadlessSimulator [-store [-torus] | [-parallel] [-streams]]
+ * [-load file] [-save file] [-telemetry file] [steps] [depth width]
+ * where -store runs the species from an EntityStore rather than as objects,
+ * and -torus makes the store's grid wrap round at its edges,
+ * -parallel runs each step over tiles of the field on every core, and
+ * -streams draws random numbers from streams keyed by step and species, so
+ * a -parallel run gives the same result however many cores there are; an
+ * EntityStore draws from the shared generator, so -streams cannot be used
+ * with -store.
+ * -load starts the run from a checkpoint rather than a new population, and
+ * -save writes a checkpoint when the run finishes, which cannot be done
+ * from an EntityStore. -telemetry records the population of every step to
+ * a CSV file. Unknown options, or options that cannot be used together,
+ * are reported with the usage before anything is run.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class HeadlessSimulator {
+    // The default number of steps to run for.
+    private static final int DEFAULT_STEPS = 4000;
+    // The default depth of the grid.
+    private static final int DEFAULT_DEPTH = 80;
+    // The default width for the grid.
+    private static final int DEFAULT_WIDTH = 120;
+    // The length of the side of the tiles used by -parallel.
+    private static final int PARALLEL_TILE_SIZE = 16;
+    // The seed of the random streams used by -streams.
+    private static final long STREAM_SEED = 1111;
+    // How to run the simulator, printed when it is run wrongly.
+    private static final String USAGE = "Usage: java HeadlessSimulator [-store [-torus] | [-parallel] [-streams]]"
+            + " [-load file] [-save file] [-telemetry file] [steps] [depth width]";
+
+    private SimulationEngine engine;
+
+    /**
+     * Create a headless simulation with a field of the given size.
+     *
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     */
+    public HeadlessSimulator(int depth, int width) {
+        if (width <= 0 || depth <= 0) {
+            System.out.println("The dimensions must be greater than zero.");
+            System.out.println("Using default values.");
+            depth = DEFAULT_DEPTH;
+            width = DEFAULT_WIDTH;
+        }
+        engine = new SimulationEngine(depth, width);
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean useStore = false;
+        boolean useTorus = false;
+        boolean useTiles = false;
+        boolean useStreams = false;
+        Path loadFile = null;
+        Path saveFile = null;
+        Path telemetryFile = null;
+        int flags = 0;
+        while (flags < args.length && args[flags].startsWith("-")) {
+            String flag = args[flags];
+            if (flag.equals("-load") || flag.equals("-save") || flag.equals("-telemetry")) {
+                if (flags + 1 == args.length) {
+                    exitWithUsage(flag + " needs a file");
+                }
+                Path path = Path.of(args[++flags]);
+                if (flag.equals("-load")) {
+                    loadFile = path;
+                } else if (flag.equals("-save")) {
+                    saveFile = path;
+                } else {
+                    telemetryFile = path;
+                }
+            } else if (flag.equals("-store")) {
+                useStore = true;
+            } else if (flag.equals("-torus")) {
+                useTorus = true;
+            } else if (flag.equals("-parallel")) {
+                useTiles = true;
+            } else if (flag.equals("-streams")) {
+                useStreams = true;
+            } else {
+                exitWithUsage("Unknown option " + flag);
+            }
+            flags++;
+        }
+        if (useTorus && !useStore) {
+            exitWithUsage("-torus can only be used with -store");
+        }
+        if (useStore && useTiles) {
+            exitWithUsage("-store and -parallel cannot be used together");
+        }
+        if (useStore && useStreams) {
+            exitWithUsage("-store and -streams cannot be used together, as an EntityStore draws from the shared generator");
+        }
+        if (useStore && saveFile != null) {
+            exitWithUsage("-save cannot be used with -store, as an EntityStore cannot be checkpointed");
+        }
+        args = Arrays.copyOfRange(args, flags, args.length);
+        if (args.length > 3 || args.length == 2) {
+            exitWithUsage("Give the steps, then both the depth and width or neither");
+        }
+        int steps = DEFAULT_STEPS;
+        int depth = DEFAULT_DEPTH;
+        int width = DEFAULT_WIDTH;
+        try {
+            if (args.length > 0) {
+                steps = Integer.parseInt(args[0]);
+            }
+            if (args.length > 2) {
+                depth = Integer.parseInt(args[1]);
+                width = Integer.parseInt(args[2]);
+            }
+        } catch (NumberFormatException e) {
+            exitWithUsage("Not a number: " + e.getMessage());
+        }
+        if (useTorus && (depth < 3 || width < 3)) {
+            exitWithUsage("-torus needs a field of at least 3 by 3");
+        }
+
+        HeadlessSimulator simulator = new HeadlessSimulator(depth, width);
+        if (useStreams) {
+            simulator.getEngine().useRandomStreams(STREAM_SEED);
+        }
+        if (loadFile != null) {
+            simulator.getEngine().loadCheckpoint(loadFile);
+        }
+        if (useStore) {
+            simulator.getEngine().useEntityStore(useTorus);
+        }
+        if (useTiles) {
+            simulator.getEngine().useTileScheduler(PARALLEL_TILE_SIZE, ForkJoinPool.commonPool());
+        }
+        if (telemetryFile != null) {
+            try (Telemetry telemetry = new Telemetry(telemetryFile)) {
+                simulator.getEngine().useTelemetry(telemetry);
+                simulator.simulate(steps);
+                simulator.getEngine().useTelemetry(null);
+            }
+        } else {
+            simulator.simulate(steps);
+        }
+        if (saveFile != null) {
+            simulator.getEngine().saveCheckpoint(saveFile);
+        }
+    }
+
+    /**
+     * Print what was wrong with the arguments and how to run the simulator,
+     * and stop.
+     *
+     * @param problem what was wrong with the arguments
+     */
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Run the simulation from its current state for the given number of steps,
+     * stopping early if it ceases to be viable. The number of steps run and
+     * the steps per second achieved are printed at the end.
+     *
+     * @param numSteps The number of steps to run for.
+     * @return The number of steps actually run.
+     */
+    public int simulate(int numSteps) {
+        long start = System.nanoTime();
+        int step = 0;
+        while (step < numSteps && engine.isViable()) {
+            engine.simulateOneStep();
+            step++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println("Steps: " + step + " in " + String.format("%.3f", seconds) + "s ("
+                + String.format("%.1f", step / Math.max(seconds, 1e-9)) + " steps/sec)");
+        System.out.println("Population: " + engine.getPopulationDetails());
+        return step;
+    }
+
+    /**
+     * @return the engine being run
+     */
+    public SimulationEngine getEngine() {
+        return engine;
+    }
+}
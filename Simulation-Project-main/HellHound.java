@@ -30,16 +30,14 @@ public class HellHound extends Predator {
 
 
     /**
-     * Create a hellhound and add the preys they hunt to the hashmap
+     * Create a hellhound. The prey they hunt are listed in FoodWeb
      *
      * @param randomAge If true, the zombie will have random age and energy level.
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      */
-    public HellHound(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
-
-        addPrey(Zombie.class);
+    public HellHound(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
@@ -106,10 +104,14 @@ public class HellHound extends Predator {
      *
      * @param newHellHounds The list which contains new species
      * @param field         The grid in which the zombie will be born
-     * @param loc           The location of the new zombie's birth
+     * @param cell          The cell of the new zombie's birth
      */
-    public void addBaby(List<Species> newHellHounds, Field field, Location loc) {
-        HellHound young = new HellHound(false, field, loc);
+    public void addBaby(List<Species> newHellHounds, Field field, long cell) {
+        // Bring back a dead hellhound if the field has one to reuse.
+        Species young = field.getPool().reuse(getTypeId(), field, cell);
+        if (young == null) {
+            young = new HellHound(false, field, cell);
+        }
         //Adding new dragons, which is referencing newAnimals in Simulator
         newHellHounds.add(young);
     }
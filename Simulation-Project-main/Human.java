@@ -31,15 +31,14 @@ public class Human extends Predator {
 
 
     /**
-     * Create a Human and add plants to the hashmap -as that's their food source
+     * Create a Human. Their food source is listed in FoodWeb
      *
      * @param randomAge If true, the human will have random age and energy level.
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      */
-    public Human(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
-        addPrey(Human.class);
+    public Human(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
@@ -107,10 +106,14 @@ public class Human extends Predator {
      *
      * @param newBabies The list which contains new species
      * @param field     The grid in which the zombie will be born
-     * @param loc       The location of the new zombie's birth
+     * @param cell      The cell of the new zombie's birth
      */
-    public void addBaby(List<Species> newBabies, Field field, Location loc) {
-        Human baby = new Human(false, field, loc);
+    public void addBaby(List<Species> newBabies, Field field, long cell) {
+        // Bring back a dead human if the field has one to reuse.
+        Species baby = field.getPool().reuse(getTypeId(), field, cell);
+        if (baby == null) {
+            baby = new Human(false, field, cell);
+        }
         //Adding new baby, which is referencing newAnimals in Simulator
         newBabies.add(baby);
     }
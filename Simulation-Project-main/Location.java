@@ -45,14 +45,15 @@ public class Location
     }
     
     /**
-     * Use the top 16 bits for the row value and the bottom for
-     * the column. Except for very big grids, this should give a
-     * unique hash code for each (row, col) pair.
+     * Mix the row and column as one 64-bit value, so that locations in
+     * grids of any size, not just those under 65,536 wide, have hash
+     * codes that are well spread.
      * @return A hashcode for the location.
      */
     public int hashCode()
     {
-        return (row << 16) + col;
+        long key = ((long) row << 32) | (col & 0xFFFFFFFFL);
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L);
     }
     
     /**
@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many independent simulations in one JVM, spread over all of the
+ * cores, and gathers a summary of each. Every run has its own engine and
+ * so its own random generator, so a run gives the same result whichever
+ * thread it is run on and whatever else is running beside it.
+ *
+ * Usage: java ParameterSweep [replicates] [steps] [depth width]
+ * runs each of SCALES, applied to the usual creation probabilities, with
+ * seeds 1 to replicates, and prints one line of CSV per run.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class ParameterSweep {
+    // The default number of runs of each set of probabilities.
+    private static final int DEFAULT_REPLICATES = 4;
+    // The default number of steps to run for.
+    private static final int DEFAULT_STEPS = 500;
+    // The default depth of the grid.
+    private static final int DEFAULT_DEPTH = 80;
+    // The default width for the grid.
+    private static final int DEFAULT_WIDTH = 120;
+    // The scales applied to the usual creation probabilities by main.
+    private static final double[] SCALES = {0.5, 1.0, 1.5};
+
+    // The size of the field of every run.
+    private final int depth;
+    private final int width;
+    // The most steps each run is run for.
+    private final int steps;
+    // The runs to make.
+    private final List<Run> runs;
+
+    /**
+     * Create an empty sweep of runs on fields of the given size.
+     *
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     * @param steps The most steps each run is run for.
+     */
+    public ParameterSweep(int depth, int width, int steps) {
+        this.depth = depth;
+        this.width = width;
+        this.steps = steps;
+        runs = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int replicates = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_REPLICATES;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_STEPS;
+        int depth = args.length > 3 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        int width = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_WIDTH;
+
+        ParameterSweep sweep = new ParameterSweep(depth, width, steps);
+        for (double scale : SCALES) {
+            double[] probabilities = SimulationEngine.getDefaultCreationProbabilities();
+            for (int typeId = 0; typeId < probabilities.length; typeId++) {
+                probabilities[typeId] *= scale;
+            }
+            for (long seed = 1; seed <= replicates; seed++) {
+                sweep.add(seed, probabilities);
+            }
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        List<Result> results = sweep.run(threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        StringBuilder header = new StringBuilder("seed,steps");
+        for (int typeId = 0; typeId < SpeciesTypes.count(); typeId++) {
+            header.append(',').append(SpeciesTypes.classOf(typeId).getName()).append(" probability");
+        }
+        for (int typeId = 0; typeId < SpeciesTypes.count(); typeId++) {
+            header.append(',').append(SpeciesTypes.classOf(typeId).getName());
+        }
+        System.out.println(header);
+        for (Result result : results) {
+            System.out.println(result);
+        }
+        System.out.println(results.size() + " runs on " + threads + " threads in "
+                + String.format("%.3f", seconds) + "s");
+    }
+
+    /**
+     * Add a run to the sweep.
+     *
+     * @param seed                  The seed of the run's random generator.
+     * @param creationProbabilities The probability of each type of species
+     *                              being created in a grid position, by type id.
+     */
+    public void add(long seed, double[] creationProbabilities) {
+        runs.add(new Run(seed, creationProbabilities.clone()));
+    }
+
+    /**
+     * Make every run added, on a pool of the given number of threads, and
+     * wait for them all to finish.
+     *
+     * @param threads The number of runs to make at once.
+     * @return The result of each run, in the order the runs were added.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public List<Result> run(int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Run run : runs) {
+                futures.add(pool.submit(run::call));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("A run of the sweep failed", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * One simulation of the sweep.
+     */
+    private class Run {
+        private final long seed;
+        private final double[] creationProbabilities;
+
+        Run(long seed, double[] creationProbabilities) {
+            this.seed = seed;
+            this.creationProbabilities = creationProbabilities;
+        }
+
+        /**
+         * Run the simulation until it has run all of the steps or ceased
+         * to be viable.
+         *
+         * @return the summary of the run
+         */
+        Result call() {
+            SimulationEngine engine = new SimulationEngine(depth, width, creationProbabilities, seed);
+            while (engine.getStep() < steps && engine.isViable()) {
+                engine.simulateOneStep();
+            }
+            int[] counts = new int[SpeciesTypes.count()];
+            for (int typeId = 0; typeId < counts.length; typeId++) {
+                counts[typeId] = engine.getField().getStats().getCount(typeId);
+            }
+            return new Result(seed, creationProbabilities, engine.getStep(), counts);
+        }
+    }
+
+    /**
+     * The summary of one run: its parameters, how many steps it ran for,
+     * and how many of each type of species were left at the end.
+     */
+    public static class Result {
+        private final long seed;
+        private final double[] creationProbabilities;
+        private final int steps;
+        private final int[] counts;
+
+        Result(long seed, double[] creationProbabilities, int steps, int[] counts) {
+            this.seed = seed;
+            this.creationProbabilities = creationProbabilities;
+            this.steps = steps;
+            this.counts = counts;
+        }
+
+        /**
+         * @return the seed of the run's random generator
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * @param typeId a species type id
+         * @return the probability of that type being created in a grid position
+         */
+        public double getCreationProbability(int typeId) {
+            return creationProbabilities[typeId];
+        }
+
+        /**
+         * @return the number of steps run before the run finished or
+         * ceased to be viable
+         */
+        public int getSteps() {
+            return steps;
+        }
+
+        /**
+         * @param typeId a species type id
+         * @return the number of that type of species alive at the end
+         */
+        public int getCount(int typeId) {
+            return counts[typeId];
+        }
+
+        /**
+         * @return the result as a line of CSV
+         */
+        @Override
+        public String toString() {
+            StringBuilder line = new StringBuilder();
+            line.append(seed).append(',').append(steps);
+            for (double probability : creationProbabilities) {
+                line.append(',').append(probability);
+            }
+            for (int count : counts) {
+                line.append(',').append(count);
+            }
+            return line.toString();
+        }
+    }
+}
@@ -3,7 +3,6 @@ import java.util.*;
 public abstract class Plant extends Species {
 
     // Characteristics shared by all plants (class variables).
-    private static final Random RAND = Randomizer.getRandom();
 
     /**
      * Create a new plant. A plant may be created with age
@@ -12,10 +11,10 @@ public abstract class Plant extends Species {
      *
      * @param randomAge If true, the human will have a random age.
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      */
-    public Plant(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
+    public Plant(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
@@ -28,7 +27,7 @@ public abstract class Plant extends Species {
      */
     public int breed() {
         int births = 0;
-        if (canBreed() && RAND.nextDouble() <= getBreedingProbability()) {
+        if (canBreed() && Randomizer.current().nextDouble() <= getBreedingProbability()) {
             births = getBirthLimit();
         }
         return births;
@@ -49,7 +48,7 @@ public abstract class Plant extends Species {
      * @param weatherOccurring   The weather event occurring (can be null)
      */
     public void act(List<Species> newPlants, boolean isDay, Disease diseaseBeingSpread, Weather weatherOccurring) {
-        incrementAge();
+        updateAge();
 
         if (getDoesSleep() && !isDay) {
             return;
@@ -70,15 +69,18 @@ public abstract class Plant extends Species {
             //  || !(weatherOccurring.getName().equals("Raining"))
             if (weatherOccurring == null || !(weatherOccurring.getClass() == Rain.class)) {
                 effectOfNoRain();
+            } else {
+                skipHunger();
             }
         }
     }
 
     /**
-     * Decreases the energy level of the plant by 1.
+     * Decreases the energy level of the plant by 1, which kills it on the
+     * step its energy runs out.
      * Called when it's not raining in the simulation
      */
     private void effectOfNoRain() {
-        changeEnergyLevel(-1);
+        chargeHunger();
     }
 }
\ No newline at end of file
@@ -9,49 +9,54 @@ import java.util.*;
  */
 public abstract class Predator extends Species {
 
-    private List<Class<?>> prey;
-
     /**
      * Constructor calling Species constructor, and if the predator will have
      * a random stating age, then the predator
      */
-    public Predator(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
-        prey = new ArrayList<>();
+    public Predator(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
-     * Adds species to the prey list
+     * Returns if this predator hunts the given class of species
      *
-     * @param specie the class of the prey
+     * @param specie the class being checked
+     * @return true if it is one of this predator's prey
      */
-    protected void addPrey(Class<?> specie) {
-        prey.add(specie);
+    protected boolean isPrey(Class<?> specie) {
+        return FoodWeb.canEat(getTypeId(), SpeciesTypes.idOf(specie));
     }
 
-
     /**
-     * Make the predator hungry, reducing it'd energy level by 1;
+     * Make the predator hungry, reducing it'd energy level by 1, which
+     * kills it on the step its energy runs out.
      */
     public void incrementHunger() {
-        changeEnergyLevel(-1);
+        chargeHunger();
     }
 
     /**
      * Looks for all the prey animals in adjacent squares.
      * If the correct animal is there and is not dead - it is killed and eaten.
      * The prey's food value is set as the new energy level of the predator
+     * The field's bitplanes are checked first, so the neighbouring species
+     * are only looked at if one of them is prey.
      *
-     * @return Where food was found, or null if it wasn't.
+     * @return The cell where food was found, or -1 if it wasn't.
      */
-    public Location findFood() {
+    public long findFood() {
         Field field = getField();
-        List<Location> adjacent = field.adjacentLocations(getLocation(), 1);
+        long cell = getCell();
+        int prey = FoodWeb.preyOf(getTypeId());
+        if (!field.hasAdjacent(prey, cell)) {
+            return -1;
+        }
 
-        for (Location where : adjacent) {
-            Species food = (Species) field.getObjectAt(where);
+        for (byte direction : field.adjacentDirections(cell)) {
+            long where = field.adjacentCell(cell, direction);
+            Species food = field.getSpeciesAt(where);
 
-            if (food != null && prey.contains(food.getClass())) {
+            if (food != null && (prey & (1 << food.getTypeId())) != 0) {
                 if (food.isAlive()) {
                     food.setDead();
                     changeEnergyLevel(food.getFoodLevel());
@@ -59,7 +64,7 @@ public abstract class Predator extends Species {
                 }
             }
         }
-        return null;
+        return -1;
     }
 
     /**
@@ -77,7 +82,7 @@ public abstract class Predator extends Species {
      * @param weatherOccurring   The weather event occurring (can be null)
      */
     public void act(List<Species> newPradators, boolean isDay, Disease diseaseBeingSpread, Weather weatherOccurring) {
-        incrementAge();
+        updateAge();
 
         if (getDoesSleep() && !isDay) {
             return;
@@ -95,14 +100,14 @@ public abstract class Predator extends Species {
 
             giveBirth(newPradators);
             // Move towards a source of food if found.
-            Location newLocation = findFood();
-            if (newLocation == null) {
+            long newCell = findFood();
+            if (newCell < 0) {
                 // No food found - try to move to a free location.
-                newLocation = getField().freeAdjacentLocation(getLocation());
+                newCell = getField().freeAdjacentCell(getCell());
             }
             // See if it was possible to move.
-            if (newLocation != null) {
-                setLocation(newLocation);
+            if (newCell >= 0) {
+                setCell(newCell);
             } else {
                 // Overcrowding.
                 setDead();
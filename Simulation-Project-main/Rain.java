@@ -14,12 +14,11 @@ public class Rain extends Weather
 
     /**
      * Constructor holds the name of the weather (to be shown on the simulator view when it's raining).
-     * The classes that are affected by rain are added to the speciesAffected ArrayList.
+     * The classes that are affected by rain are listed in FoodWeb.
      */
     public Rain()
     {
         name = "Raining";
-        addSpeciesAffected(Plant.class);
     }
 
     /**
@@ -48,7 +47,7 @@ public class Rain extends Weather
      * @param specie
      */
     public  void effectOfWeather(Species specie){
-        if(speciesAffected.contains(specie.getClass())){
+        if(affects(specie.getTypeId())){
             specie.changeEnergyLevel(specie.getMaxEnergyLevel());
         }
     }
@@ -1,52 +1,299 @@
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Provide control over the randomization of the simulation. By using the shared, fixed-seed 
  * randomizer, repeated runs will perform exactly the same (which helps with testing). Set 
  * 'useShared' to false to get different random behaviour every time.
  * 
- * @author David J. Barnes and Michael Kölling
+ * Runs spread over several threads can instead use random streams: each
+ * thread draws from a StreamRandom, and before a species acts the stream
+ * for that step and species is selected. The species then makes the same
+ * decisions however many threads there are.
+ * 
+ * Each simulation has a Randomizer of its own, with its own shared
+ * generator and stream seed, and makes it the active one on a thread while
+ * it runs there with enter and exit. The static methods draw from the
+ * randomizer active on the calling thread, or from a default one if there
+ * is none, so simulations running side by side in one JVM never draw from
+ * each other's generators.
+ * 
+ * The state of the randomization can be read and restored, so a run saved
+ * in a checkpoint carries on exactly as it would have.
+ *
+ * @author David J. Barnes and Michael Kölling,
+ * Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
  * @version 2016.02.29
  */
 public class Randomizer
 {
     // The default seed for control of randomization.
     private static final int SEED = 1111;
-    // A shared Random object, if required.
-    private static final Random rand = new Random(SEED);
     // Determine whether a shared random generator is to be provided.
     private static final boolean useShared = true;
+    // The randomizer used on threads where no simulation is running.
+    private static final Randomizer DEFAULT = new Randomizer();
+    // The randomizer of the simulation running on each thread, if any.
+    private static final ThreadLocal<Randomizer> active = new ThreadLocal<>();
+
+    // The seed of the shared generator.
+    private final long seed;
+    // A shared Random object, if required.
+    private final SharedRandom rand;
+    // The random stream generator of each thread.
+    private final ThreadLocal<StreamRandom> streams = new ThreadLocal<>();
+    // Whether random streams are being used in place of the shared generator.
+    private volatile boolean useStreams = false;
+    // The seed of the random streams.
+    private volatile long streamSeed = SEED;
 
     /**
-     * Constructor for objects of class Randomizer
+     * Constructor for objects of class Randomizer, with the default seed.
      */
     public Randomizer()
     {
+        this(SEED);
+    }
+
+    /**
+     * Create a randomizer whose shared generator has the given seed.
+     * @param seed The seed of the shared generator.
+     */
+    public Randomizer(long seed)
+    {
+        this.seed = seed;
+        rand = new SharedRandom(seed);
+    }
+
+    /**
+     * Make a randomizer the one drawn from on this thread, until exit is
+     * called with the randomizer returned.
+     * @param randomizer The randomizer to draw from.
+     * @return The randomizer that was active before, or null if none was.
+     */
+    public static Randomizer enter(Randomizer randomizer)
+    {
+        Randomizer previous = active.get();
+        active.set(randomizer);
+        return previous;
+    }
+
+    /**
+     * Make the randomizer that was active before enter was called active
+     * on this thread again.
+     * @param previous The randomizer returned by enter.
+     */
+    public static void exit(Randomizer previous)
+    {
+        if(previous == null) {
+            active.remove();
+        }
+        else {
+            active.set(previous);
+        }
     }
 
     /**
-     * Provide a random generator.
+     * @return The randomizer active on this thread, or the default one if
+     * no simulation is running on it.
+     */
+    public static Randomizer active()
+    {
+        Randomizer randomizer = active.get();
+        return randomizer == null ? DEFAULT : randomizer;
+    }
+
+    /**
+     * Provide a random generator: the shared generator of the active
+     * randomizer.
      * @return A random object.
      */
     public static Random getRandom()
     {
         if(useShared) {
-            return rand;
+            return active().rand;
         }
         else {
             return new Random();
         }
     }
-    
+
+    /**
+     * Provide the random generator that decisions should be drawn from
+     * now: this thread's selected stream if random streams are in use,
+     * and the shared generator otherwise.
+     * @return A random object.
+     */
+    public static Random current()
+    {
+        Randomizer randomizer = active();
+        if(randomizer.useStreams) {
+            return randomizer.stream();
+        }
+        return getRandom();
+    }
+
+    /**
+     * Select the stream for the given step and key on this thread, if
+     * random streams are in use.
+     * @param step The step of the simulation.
+     * @param key Whose decisions are to be made, such as a species' key.
+     * @return The generator to draw from, as given by current().
+     */
+    public static Random select(long step, long key)
+    {
+        Randomizer randomizer = active();
+        if(randomizer.useStreams) {
+            return randomizer.stream().select(step, key);
+        }
+        return getRandom();
+    }
+
+    /**
+     * Give a key for the random stream of something new, such as a species
+     * being born, derived from this thread's selected stream.
+     * @param value What the key is for, such as a cell index.
+     * @return The new key, or 0 if random streams are not in use.
+     */
+    public static long deriveKey(long value)
+    {
+        Randomizer randomizer = active();
+        if(randomizer.useStreams) {
+            return randomizer.stream().deriveKey(value);
+        }
+        return 0;
+    }
+
+    /**
+     * Use random streams with the given seed in place of the shared
+     * generator.
+     * @param seed The seed of the random streams.
+     */
+    public void useStreams(long seed)
+    {
+        streamSeed = seed;
+        useStreams = true;
+    }
+
+    /**
+     * @return true if random streams are in use.
+     */
+    public boolean usesStreams()
+    {
+        return useStreams;
+    }
+
+    /**
+     * Return the state of the randomization: the seed of the random streams
+     * if they are in use, and the state of the shared generator otherwise.
+     * @return The state, for restoreState.
+     */
+    public long getState()
+    {
+        if(useStreams) {
+            return streamSeed;
+        }
+        return rand.getState();
+    }
+
+    /**
+     * Put the randomization back into a state given by getState.
+     * @param streams Whether random streams were in use.
+     * @param state The state returned by getState.
+     */
+    public void restoreState(boolean streams, long state)
+    {
+        if(streams) {
+            useStreams(state);
+        }
+        else {
+            useStreams = false;
+            rand.setState(state);
+        }
+    }
+
     /**
      * Reset the randomization.
      * This will have no effect if randomization is not through
      * a shared Random generator.
      */
-    public static void reset()
+    public void reset()
     {
         if(useShared) {
-            rand.setSeed(SEED);
+            rand.setSeed(seed);
+        }
+    }
+
+    /**
+     * @return This thread's random stream generator, made for the current
+     * stream seed.
+     */
+    private StreamRandom stream()
+    {
+        StreamRandom stream = streams.get();
+        if(stream == null || stream.getStreamSeed() != streamSeed) {
+            stream = new StreamRandom(streamSeed);
+            streams.set(stream);
+        }
+        return stream;
+    }
+
+    /**
+     * The shared generator. It makes the same numbers as java.util.Random,
+     * with the same linear congruential formula, but its state can be read
+     * and set.
+     */
+    private static class SharedRandom extends Random
+    {
+        private static final long serialVersionUID = 1L;
+        private static final long MULTIPLIER = 0x5DEECE66DL;
+        private static final long ADDEND = 0xBL;
+        private static final long MASK = (1L << 48) - 1;
+
+        // The 48 bits of state. Set by setSeed, which the constructor of
+        // Random calls before this class's fields are initialised.
+        private AtomicLong state;
+
+        SharedRandom(long seed)
+        {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void setSeed(long seed)
+        {
+            setState((seed ^ MULTIPLIER) & MASK);
+        }
+
+        /**
+         * @return The 48 bits of state.
+         */
+        long getState()
+        {
+            return state.get();
+        }
+
+        /**
+         * @param newState The new state; only its low 48 bits are used.
+         */
+        void setState(long newState)
+        {
+            if(state == null) {
+                state = new AtomicLong();
+            }
+            state.set(newState & MASK);
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            long oldState;
+            long nextState;
+            do {
+                oldState = state.get();
+                nextState = (oldState * MULTIPLIER + ADDEND) & MASK;
+            } while(!state.compareAndSet(oldState, nextState));
+            return (int) (nextState >>> (48 - bits));
         }
     }
 }
@@ -0,0 +1,122 @@
+import java.util.Random;
+
+/**
+ * A square block of cells around a centre cell, clipped to the edges of a
+ * grid. Only the bounds are stored, so a region covering half of a large
+ * field is as cheap to make as a small one; code that needs its cells
+ * loops over the rows from getTop() to getBottom() and the columns from
+ * getLeft() to getRight(), skipping the centre if it should be left out.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class Region {
+    // The largest share of the grid a random block covers, as a percentage
+    private static final int MAX_PERCENTAGE_OF_GRID = 50;
+
+    // The cell the block is centred on
+    private final int centreRow;
+    private final int centreCol;
+    // The first and last rows and columns of the block, inclusive
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+
+    /**
+     * Create the block of cells within the given distance of a centre cell,
+     * clipped to a grid of the given size.
+     *
+     * @param centreRow the row of the centre cell
+     * @param centreCol the column of the centre cell
+     * @param radius    the largest row or column distance from the centre
+     * @param depth     the depth of the grid
+     * @param width     the width of the grid
+     */
+    public Region(int centreRow, int centreCol, int radius, int depth, int width) {
+        this.centreRow = centreRow;
+        this.centreCol = centreCol;
+        top = Math.max(0, centreRow - radius);
+        bottom = Math.min(depth - 1, centreRow + radius);
+        left = Math.max(0, centreCol - radius);
+        right = Math.min(width - 1, centreCol + radius);
+    }
+
+    /**
+     * Choose a random block of a grid for an outbreak. A random percentage,
+     * up to half, of the grid is chosen along with a random centre cell,
+     * and the block is the smallest square around the centre holding more
+     * cells than that percentage, not counting the centre.
+     * The radius is found by a binary search on the size of the clipped
+     * block, so no cells are visited.
+     *
+     * @param depth the depth of the grid
+     * @param width the width of the grid
+     * @param rand  the random generator to draw from
+     * @return the block
+     */
+    public static Region randomBlock(int depth, int width, Random rand) {
+        int percentage = rand.nextInt(MAX_PERCENTAGE_OF_GRID) + 1;
+        // In long, as the product overflows an int on large grids.
+        long minNumberOfCells = (long) percentage * depth * width / 100;
+        int centreRow = rand.nextInt(depth);
+        int centreCol = rand.nextInt(width);
+
+        // The block of the largest radius covers the whole grid, which is
+        // always enough; find the smallest radius that is.
+        int low = 1;
+        int high = Math.max(1, Math.max(depth, width));
+        while (low < high) {
+            int radius = (low + high) >>> 1;
+            if (new Region(centreRow, centreCol, radius, depth, width).size() > minNumberOfCells) {
+                high = radius;
+            } else {
+                low = radius + 1;
+            }
+        }
+        return new Region(centreRow, centreCol, low, depth, width);
+    }
+
+    /**
+     * @return the number of cells in the block, not counting the centre
+     */
+    public long size() {
+        return (long) (bottom - top + 1) * (right - left + 1) - 1;
+    }
+
+    /**
+     * @param row a row of the grid
+     * @param col a column of the grid
+     * @return true if the cell is the centre of the block
+     */
+    public boolean isCentre(int row, int col) {
+        return row == centreRow && col == centreCol;
+    }
+
+    /**
+     * @return the first row of the block
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return the last row of the block
+     */
+    public int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * @return the first column of the block
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the last column of the block
+     */
+    public int getRight() {
+        return right;
+    }
+}
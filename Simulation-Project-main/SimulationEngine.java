@@ -0,0 +1,818 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The simulation engine: a rectangular field containing Dragons, Zombies,
+ * Hell-hounds, Humans and plants, together with the diseases and weather
+ * conditions affecting them.
+ * The engine holds all of the simulation state and knows nothing about how
+ * (or whether) it is displayed, so it can be driven by the graphical
+ * Simulator or run headless for long batch runs. It keeps its own
+ * population counts so viability can be checked without a view.
+ * Every engine has its own Randomizer, made active on whichever thread is
+ * running it, so engines can run side by side in one JVM without
+ * affecting each other's results.
+ *
+ * @author David J. Barnes, Michael Kölling,
+ * Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ * @version 2016.02.29 (2)
+ */
+public class SimulationEngine {
+    // The seed of the shared generator of an engine given no seed
+    private static final long DEFAULT_SEED = 1111;
+    // The probability of plant being created in any given grid position
+    private static final double GRASS_CREATION_PROBABILITY = 0.09;
+    // The probability that a human will be created in any given grid position.
+    private static final double HUMAN_CREATION_PROBABILITY = 0.08;
+    // The probability that a hell-hound will be created in any given grid position.
+    private static final double HELLHOUND_CREATION_PROBABILITY = 0.06;
+    // The probability that a zombie will be created in any given grid position.
+    private static final double ZOMBIE_CREATION_PROBABILITY = 0.04;
+    // The probability that a dragon will be created in any given grid position.
+    private static final double DRAGON_CREATION_PROBABILITY = 0.02;
+    // The order in which the types are tried when populating a grid position
+    private static final int[] POPULATE_ORDER = {SpeciesTypes.idOf(Dragon.class), SpeciesTypes.idOf(Zombie.class),
+            SpeciesTypes.idOf(HellHound.class), SpeciesTypes.idOf(Human.class), SpeciesTypes.idOf(Grass.class)};
+    // The keys of the random streams used by the engine itself, when the
+    // simulation draws from random streams
+    private static final long POPULATE_KEY = -1;
+    private static final long DISEASE_KEY = -2;
+    private static final long WEATHER_KEY = -3;
+    // The first int of every checkpoint file, "SIMC" in ASCII
+    private static final int CHECKPOINT_MAGIC = 0x53494D43;
+    // The version of the checkpoint format
+    private static final int CHECKPOINT_VERSION = 2;
+    // The bytes of a checkpoint before the diseases: the magic number,
+    // version, depth, width, step, isDay, random streams flag and state
+    private static final int CHECKPOINT_HEADER_BYTES = 4 * 5 + 1 + 1 + 8;
+
+    // The current step of the simulation.
+    private int step;
+    //List of diseases in the simulation
+    private List<Disease> diseases;
+    //List of weather in the simulation
+    private List<Weather> weathers;
+    // List of animals in the field.
+    private List<Species> species;
+    // The current state of the field.
+    private Field field;
+    // The probability of each type of species being created in any given
+    // grid position, by type id
+    private final double[] creationProbabilities;
+    // Where the random decisions of this simulation are drawn from
+    private final Randomizer randomizer;
+    // The species held as arrays rather than objects, or null if the
+    // species list and field are being used
+    private EntityStore store;
+    // Runs each step over tiles of the field on several threads, or null if
+    // the species act one after another
+    private TileScheduler scheduler;
+    // Records the counts of each step, or null if none are recorded
+    private Telemetry telemetry;
+    // The species that act at night, in the order they are in the species
+    // list, or null while no species are asleep
+    private List<Species> awake;
+    // The species born in the current step, emptied after each step so
+    // that it is not allocated anew
+    private List<Species> newborns;
+    // The sleeping species that reach breeding age during the night, so
+    // must be shown to the field as breeding when they wake
+    private List<Species> maturing;
+    //Text showing which disease and weather are currently occurring
+    private String weatherText;
+    private String diseaseText;
+    //Fields holding the active weather and disease
+    private Weather currentWeather;
+    private Disease currentDisease;
+    private boolean isDay;
+
+    /**
+     * Create a simulation engine with a field of the given size, and
+     * populate it with a valid starting point.
+     *
+     * @param depth Depth of the field. Must be greater than zero.
+     * @param width Width of the field. Must be greater than zero.
+     */
+    public SimulationEngine(int depth, int width) {
+        this(depth, width, 1.0);
+    }
+
+    /**
+     * Create a simulation engine with a field of the given size, populated
+     * more or less densely than usual.
+     *
+     * @param depth         Depth of the field. Must be greater than zero.
+     * @param width         Width of the field. Must be greater than zero.
+     * @param creationScale Scale applied to the creation probability of
+     *                      each species, 1.0 being the normal population.
+     */
+    public SimulationEngine(int depth, int width, double creationScale) {
+        this(depth, width, scale(getDefaultCreationProbabilities(), creationScale), DEFAULT_SEED);
+    }
+
+    /**
+     * Create a simulation engine with a field of the given size, populated
+     * with the given probabilities and drawing its random decisions from a
+     * generator with the given seed.
+     *
+     * @param depth                 Depth of the field. Must be greater than zero.
+     * @param width                 Width of the field. Must be greater than zero.
+     * @param creationProbabilities The probability of each type of species
+     *                              being created in a grid position, by type id.
+     * @param seed                  The seed of the random generator.
+     */
+    public SimulationEngine(int depth, int width, double[] creationProbabilities, long seed) {
+        this.creationProbabilities = creationProbabilities.clone();
+        randomizer = new Randomizer(seed);
+        currentWeather = null;
+        currentDisease = null;
+        diseases = new ArrayList<>();
+        weathers = new ArrayList<>();
+        species = new ArrayList<>();
+        newborns = new ArrayList<>();
+        field = new Field(depth, width);
+
+        reset();
+    }
+
+    /**
+     * Change boolean value of isDay to it's opposite
+     */
+    public void changeDayTime() {
+        isDay = !isDay;
+    }
+
+    /**
+     * Checks if there's a currentDisease.
+     * If no currentDisease, a random disease is generated and if
+     * creation requirements met - currentDisease is updated and activated.
+     * If currentDisease holds a disease - it's duration is decremented (each
+     * step causes to duration to go down).
+     * If the duration is now 0 - the current step is stored as the
+     * last step the disease was active for and the disease is deactivated.
+     */
+    public void handleDiseases() {
+        Random rand = Randomizer.select(step, DISEASE_KEY);
+        if (currentDisease == null) {
+            Disease randomDisease = diseases.get(rand.nextInt(diseases.size()));
+            if (step > (randomDisease.getLastDiseaseStep() + randomDisease.getNumberOfStepsBeforeNextOutbreak() - 1) && rand.nextDouble() <= randomDisease.getDiseaseCreationProbability()) {
+                currentDisease = randomDisease;
+                diseaseText = currentDisease.getName();
+                if (store != null) {
+                    store.activate(currentDisease);
+                } else {
+                    currentDisease.activate(field);
+                }
+            }
+        } else {
+            currentDisease.decrementDuration();
+            diseaseText = currentDisease.getName(); //display disease is still spreading
+            if (currentDisease.getDuration() == 0) {
+                currentDisease.changeLastDiseaseStep(step);
+                if (store != null) {
+                    store.deactivate(currentDisease);
+                } else {
+                    currentDisease.deactivate(field);
+                }
+                currentDisease = null;
+                diseaseText = "none";
+            }
+        }
+    }
+
+    /**
+     * Checks if there's a currentWeather.
+     * If no currentWeather, a random weather is generated and if
+     * creation requirements met - currentWeather is updated and activated.
+     * If currentWeather holds a disease - it's duration is decremented (each
+     * step causes to duration to go down).
+     * If the duration is now 0 - the current step is stored as the
+     * last step the weather was active for and the weather is deactivated.
+     */
+    public void handleWeather() {
+        Random rand = Randomizer.select(step, WEATHER_KEY);
+        if (currentWeather == null) {
+            Weather randomWeather = weathers.get(rand.nextInt(weathers.size()));
+            if (step > (randomWeather.getLastWeatherStep() + randomWeather.getNumberOfStepsBeforeNextWeather()) && rand.nextDouble() <= randomWeather.getWeatherOccurringProbability()) {
+                currentWeather = randomWeather;
+                weatherText = currentWeather.getName();
+                currentWeather.activate();
+            }
+        } else {
+            currentWeather.decrementDuration();
+            weatherText = currentWeather.getName(); //display weather is still occurring
+            if (currentWeather.getDuration() == 0) {
+                currentWeather.changeLastWeatherStep(step);
+                currentWeather.deactivate();
+                currentWeather = null;
+                weatherText = "clear";
+            }
+        }
+    }
+
+    /**
+     * Run the simulation from its current state for a single step.
+     * Change day value if 5 steps have passed, handles disease & weather
+     * simulation and records if any weather condition or disease is occurring.
+     * Iterate over the whole field, spreading diseases,
+     * applying effects of weather on different species and updating
+     * the state of each specie in the simulation.
+     */
+    public void simulateOneStep() {
+        Randomizer previous = Randomizer.enter(randomizer);
+        try {
+            runOneStep();
+        } finally {
+            Randomizer.exit(previous);
+        }
+    }
+
+    /**
+     * Run a single step, with the randomizer of this engine active.
+     */
+    private void runOneStep() {
+        step++;
+        field.setStep(step);
+        weatherText = "clear";
+        diseaseText = "none";
+        if (step % DayCycle.HALF_DAY_LENGTH == 0) {
+            changeDayTime();
+        }
+
+        getStats().startStep();
+        handleDiseases();
+        handleWeather();
+
+        if (store != null) {
+            store.step(isDay, currentDisease, currentWeather);
+        } else if (scheduler != null) {
+            wakeUp();
+            scheduler.step(species, step, isDay, currentDisease, currentWeather);
+        } else {
+            // At night only the species that are awake act.
+            List<Species> acting = species;
+            if (isDay) {
+                wakeUp();
+            } else {
+                if (awake == null) {
+                    fallAsleep();
+                }
+                acting = awake;
+            }
+            // Let all species act, sliding each that is still alive down
+            // over those that have died, so the list is compacted in the
+            // one pass and keeps its order. By day the dead are then in no
+            // list, so they go to the field's pool to be reused as newborns;
+            // at night they are still in the species list until morning.
+            SpeciesPool pool = field.getPool();
+            int size = acting.size();
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                Species species = acting.get(i);
+
+                Randomizer.select(step, species.getRandomKey());
+                species.act(newborns, isDay, currentDisease, currentWeather);
+                if (species.isAlive()) {
+                    acting.set(kept++, species);
+                } else if (acting == this.species) {
+                    pool.recycle(species);
+                }
+            }
+            acting.subList(kept, size).clear();
+            // Add the newly born species objects to the main lists.
+            acting.addAll(newborns);
+            if (acting != species) {
+                species.addAll(newborns);
+            }
+            newborns.clear();
+        }
+
+        field.releaseEmptyChunks();
+        if (telemetry != null) {
+            telemetry.record(step, currentDisease, currentWeather, getInfectedCount(), getStats());
+        }
+    }
+
+    /**
+     * Put to sleep, for the rest of the night, every species that sleeps at
+     * night and does not reach its expiry step before morning. At night
+     * such a species would only age, and its age follows from the step, so
+     * it is left out of the steps altogether. Species that would die in the
+     * night stay awake, so they die at the same point of the same step as
+     * they always would. The rest keep their order in the species list, so
+     * they act in the same order as if every species were visited.
+     */
+    private void fallAsleep() {
+        // The first step of the next morning.
+        int morning = step + DayCycle.HALF_DAY_LENGTH - step % DayCycle.HALF_DAY_LENGTH;
+        awake = new ArrayList<>();
+        maturing = new ArrayList<>();
+        for (Species specie : species) {
+            if (specie.getDoesSleep() && specie.isAlive() && specie.getExpiryStep() >= morning) {
+                int maturity = specie.getMaturityStep();
+                if (maturity >= step && maturity < morning) {
+                    maturing.add(specie);
+                }
+            } else {
+                awake.add(specie);
+            }
+        }
+    }
+
+    /**
+     * Wake every sleeping species: show the field those that reached
+     * breeding age in the night, and drop the species that died in the
+     * night from the species list, handing them to the field's pool to be
+     * reused. Sleeping species aged by themselves,
+     * so no others are touched. Does nothing if no species are asleep.
+     */
+    private void wakeUp() {
+        if (awake == null) {
+            return;
+        }
+        for (Species specie : maturing) {
+            if (specie.isAlive()) {
+                field.updateBreeding(specie);
+            }
+        }
+        // The tiled scheduler has births on many threads, so its dead are
+        // not pooled.
+        SpeciesPool pool = scheduler == null ? field.getPool() : null;
+        species.removeIf(specie -> {
+            if (specie.isAlive()) {
+                return false;
+            }
+            if (pool != null) {
+                pool.recycle(specie);
+            }
+            return true;
+        });
+        awake = null;
+        maturing = null;
+    }
+
+    /**
+     * Reset the simulation to a starting position.
+     */
+    public void reset() {
+        Randomizer previous = Randomizer.enter(randomizer);
+        try {
+            step = 0;
+            field.setStep(step);
+            isDay = true;
+            currentDisease = null;
+            currentWeather = null;
+            species.clear();
+            awake = null;
+            maturing = null;
+            populate();
+            weatherText = "clear";
+            diseaseText = "none";
+            if (store != null) {
+                useEntityStore(store.isToroidal());
+            }
+        } finally {
+            Randomizer.exit(previous);
+        }
+    }
+
+    /**
+     * Move the species into an EntityStore, which holds them as arrays of
+     * primitives rather than as objects, and run the rest of the simulation
+     * over the store. The field is left empty, so this is meant for
+     * headless runs. The store is used again after a reset. The store
+     * draws from the shared generator, so it cannot be used with random
+     * streams.
+     *
+     * @throws IllegalStateException if random streams are in use
+     */
+    public void useEntityStore() {
+        useEntityStore(false);
+    }
+
+    /**
+     * Move the species into an EntityStore, as useEntityStore() does,
+     * choosing whether the store's grid wraps round at its edges.
+     *
+     * @param toroidal true if species on one edge of the grid are to be
+     *                 next to those on the opposite edge; the field must
+     *                 then be at least 3 by 3
+     * @throws IllegalStateException if random streams are in use
+     */
+    public void useEntityStore(boolean toroidal) {
+        if (randomizer.usesStreams()) {
+            throw new IllegalStateException("An EntityStore cannot draw from random streams");
+        }
+        Randomizer previous = Randomizer.enter(randomizer);
+        try {
+            wakeUp();
+            store = EntityStore.load(field, toroidal);
+        } finally {
+            Randomizer.exit(previous);
+        }
+        species.clear();
+        field.clear();
+    }
+
+    /**
+     * Run each step on several threads, with the field cut into square
+     * tiles of the given size that are run in checkerboard phases so no
+     * two threads touch the same cell. Runs are only repeatable if random
+     * streams are used as well.
+     *
+     * @param tileSize the length of the side of each tile, at least
+     *                 TileScheduler.MIN_TILE_SIZE
+     * @param pool     the pool to run the tiles on
+     */
+    public void useTileScheduler(int tileSize, ForkJoinPool pool) {
+        scheduler = new TileScheduler(field, tileSize, pool);
+        // Newborns are made on many threads from now on, so none may be
+        // taken from the field's pool.
+        field.getPool().clear();
+    }
+
+    /**
+     * Record the counts, births and deaths of each type of species, the
+     * number infected and the disease and weather at the end of every
+     * step from now on. The caller closes the telemetry when done.
+     *
+     * @param telemetry where to record each step, or null to stop recording
+     */
+    public void useTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Draw every random decision from random streams keyed by the step and
+     * by whoever makes the decision, rather than from the shared generator,
+     * and reset the simulation. Runs with the same seed then make the same
+     * decisions whatever order the species act in and however many threads
+     * the steps are spread over.
+     *
+     * @param seed the seed of the random streams
+     * @throws IllegalStateException if an EntityStore is in use
+     */
+    public void useRandomStreams(long seed) {
+        if (store != null) {
+            throw new IllegalStateException("An EntityStore cannot draw from random streams");
+        }
+        randomizer.useStreams(seed);
+        reset();
+    }
+
+    /**
+     * Save the complete state of the simulation to a checkpoint file, from
+     * which loadCheckpoint carries the run on exactly as it would have.
+     * The file is written through a channel in one go. It holds, in order:
+     * a header (see CHECKPOINT_HEADER_BYTES), the state of each disease
+     * and the id of the current one or -1, the same for the weathers, then
+     * the number of species and each species as written by Species.writeTo,
+     * in the order they act. Species held in an EntityStore cannot be saved.
+     *
+     * @param file the file to write, replacing it if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void saveCheckpoint(Path file) throws IOException {
+        if (store != null) {
+            throw new IllegalStateException("Species held in an EntityStore cannot be checkpointed");
+        }
+        // Show the field the sleeping species that have reached breeding
+        // age and drop those that died; the rest are put back to sleep at
+        // the next step.
+        wakeUp();
+        int alive = 0;
+        for (Species specie : species) {
+            if (specie.isAlive()) {
+                alive++;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_HEADER_BYTES
+                + diseases.size() * Disease.CHECKPOINT_BYTES + 4
+                + weathers.size() * Weather.CHECKPOINT_BYTES + 4
+                + 4 + alive * Species.CHECKPOINT_BYTES);
+        buffer.putInt(CHECKPOINT_MAGIC);
+        buffer.putInt(CHECKPOINT_VERSION);
+        buffer.putInt(field.getDepth());
+        buffer.putInt(field.getWidth());
+        buffer.putInt(step);
+        buffer.put((byte) (isDay ? 1 : 0));
+        buffer.put((byte) (randomizer.usesStreams() ? 1 : 0));
+        buffer.putLong(randomizer.getState());
+        for (Disease disease : diseases) {
+            disease.writeTo(buffer);
+        }
+        buffer.putInt(diseases.indexOf(currentDisease));
+        for (Weather weather : weathers) {
+            weather.writeTo(buffer);
+        }
+        buffer.putInt(weathers.indexOf(currentWeather));
+        buffer.putInt(alive);
+        for (Species specie : species) {
+            if (specie.isAlive()) {
+                specie.writeTo(buffer);
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Replace the state of the simulation with one saved by saveCheckpoint.
+     * The file is mapped into memory and read in place. The field must be
+     * the size it was when the checkpoint was saved. If an EntityStore is
+     * in use the species are moved into a new one, as after a reset.
+     * The whole file is checked before anything is read into the
+     * simulation, so a file that is cut short or corrupt leaves the
+     * simulation as it was.
+     *
+     * @param file the checkpoint file to read
+     * @throws IOException if the file cannot be read or is not a
+     *                     checkpoint of a field of this size
+     */
+    public void loadCheckpoint(Path file) throws IOException {
+        Randomizer previous = Randomizer.enter(randomizer);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkCheckpoint(file, buffer.duplicate());
+            // Skip the magic number, version and size, checked above.
+            buffer.position(4 * 4);
+            step = buffer.getInt();
+            field.setStep(step);
+            isDay = buffer.get() != 0;
+            boolean streams = buffer.get() != 0;
+            long randomState = buffer.getLong();
+
+            createConditions();
+            for (Disease disease : diseases) {
+                disease.readFrom(buffer);
+            }
+            int diseaseIndex = buffer.getInt();
+            currentDisease = diseaseIndex < 0 ? null : diseases.get(diseaseIndex);
+            for (Weather weather : weathers) {
+                weather.readFrom(buffer);
+            }
+            int weatherIndex = buffer.getInt();
+            currentWeather = weatherIndex < 0 ? null : weathers.get(weatherIndex);
+            diseaseText = currentDisease == null ? "none" : currentDisease.getName();
+            weatherText = currentWeather == null ? "clear" : currentWeather.getName();
+
+            field.clear();
+            species.clear();
+            awake = null;
+            maturing = null;
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                species.add(Species.readFrom(buffer, field, diseases));
+            }
+            // Creating the species drew random numbers, so restore the
+            // randomization last.
+            randomizer.restoreState(streams, randomState);
+        } finally {
+            Randomizer.exit(previous);
+        }
+        if (store != null) {
+            useEntityStore(store.isToroidal());
+        }
+    }
+
+    /**
+     * Check that a buffer holds a whole checkpoint of a field of this size,
+     * reading it through without changing the simulation.
+     *
+     * @param file   the file the buffer was read from, for messages
+     * @param buffer the contents of the file, read from its position
+     * @throws IOException if it is not such a checkpoint, is cut short,
+     *                     holds a species of an unknown type or outside the
+     *                     field, or two species in one cell, or uses random
+     *                     streams while an EntityStore is in use
+     */
+    private void checkCheckpoint(Path file, ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.remaining() < CHECKPOINT_HEADER_BYTES || buffer.getInt() != CHECKPOINT_MAGIC) {
+                throw new IOException(file + " is not a checkpoint");
+            }
+            int version = buffer.getInt();
+            if (version != CHECKPOINT_VERSION) {
+                throw new IOException(file + " is a checkpoint of version " + version
+                        + ", not " + CHECKPOINT_VERSION);
+            }
+            int depth = buffer.getInt();
+            int width = buffer.getInt();
+            if (depth != field.getDepth() || width != field.getWidth()) {
+                throw new IOException(file + " is a checkpoint of a " + depth + " by " + width + " field");
+            }
+            // Skip the step and isDay to the random streams flag.
+            buffer.position(4 * 5 + 1);
+            if (buffer.get() != 0 && store != null) {
+                throw new IOException(file + " uses random streams, which an EntityStore cannot draw from");
+            }
+            buffer.position(CHECKPOINT_HEADER_BYTES);
+            buffer.position(buffer.position() + diseases.size() * Disease.CHECKPOINT_BYTES);
+            int diseaseIndex = buffer.getInt();
+            buffer.position(buffer.position() + weathers.size() * Weather.CHECKPOINT_BYTES);
+            int weatherIndex = buffer.getInt();
+            if (diseaseIndex < -1 || diseaseIndex >= diseases.size()
+                    || weatherIndex < -1 || weatherIndex >= weathers.size()) {
+                throw new IOException(file + " has an unknown disease or weather");
+            }
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * Species.CHECKPOINT_BYTES > buffer.remaining()) {
+                throw new IOException(file + " is cut short");
+            }
+            long[] cells = new long[count];
+            for (int i = 0; i < count; i++) {
+                int start = buffer.position();
+                int typeId = buffer.get();
+                cells[i] = buffer.getLong();
+                if (typeId < 0 || typeId >= SpeciesTypes.count()) {
+                    throw new IOException(file + " has a species of unknown type " + typeId);
+                }
+                if (cells[i] < 0 || cells[i] >= field.getCellCount()) {
+                    throw new IOException(file + " has a species outside the field");
+                }
+                buffer.position(start + Species.CHECKPOINT_BYTES);
+            }
+            Arrays.sort(cells);
+            for (int i = 1; i < count; i++) {
+                if (cells[i] == cells[i - 1]) {
+                    throw new IOException(file + " has two species in one cell");
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Positioning past the end throws IllegalArgumentException.
+            throw new IOException(file + " is cut short", e);
+        }
+    }
+
+    /**
+     * Determine whether the simulation is still viable.
+     * I.e., should it continue to run.
+     *
+     * @return true If there is more than one species alive.
+     */
+    public boolean isViable() {
+        if (store != null) {
+            return store.isViable();
+        }
+        return field.getStats().isViable();
+    }
+
+    /**
+     * @return A string describing the population of the field.
+     */
+    public String getPopulationDetails() {
+        if (store != null) {
+            return store.getPopulationDetails();
+        }
+        return field.getStats().getPopulationDetails();
+    }
+
+    /**
+     * Return the number of live species carrying at least one disease.
+     * Each is counted once however many diseases it carries. The count is
+     * kept by the field's stats, or the store's, as species are infected,
+     * cured, born and die, so nothing is scanned.
+     *
+     * @return the number of species carrying at least one disease
+     */
+    public int getInfectedCount() {
+        return getStats().getInfectedCount();
+    }
+
+    /**
+     * Take a snapshot of the current state for a view to draw. The
+     * snapshot holds only the cells that changed since the last one, or
+     * every cell after the field has been cleared. Species held in an
+     * EntityStore are not in the field, so are not shown.
+     *
+     * @return an immutable copy of the changed cells and status of the
+     * simulation
+     */
+    public FieldSnapshot snapshot() {
+        return new FieldSnapshot(step, isDay, diseaseText, weatherText, getPopulationDetails(), field,
+                field.takeChangedCells());
+    }
+
+    /**
+     * @return the current step of the simulation
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return the field being simulated
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return true if it is currently daytime in the simulation
+     */
+    public boolean getIsDay() {
+        return isDay;
+    }
+
+    /**
+     * @return the name of the disease currently spreading, or "none"
+     */
+    public String getDiseaseText() {
+        return diseaseText;
+    }
+
+    /**
+     * @return the name of the weather currently occurring, or "clear"
+     */
+    public String getWeatherText() {
+        return weatherText;
+    }
+
+    /**
+     * @return the usual probability of each type of species being created
+     * in any given grid position, by type id
+     */
+    public static double[] getDefaultCreationProbabilities() {
+        double[] probabilities = new double[SpeciesTypes.count()];
+        probabilities[SpeciesTypes.idOf(Grass.class)] = GRASS_CREATION_PROBABILITY;
+        probabilities[SpeciesTypes.idOf(Human.class)] = HUMAN_CREATION_PROBABILITY;
+        probabilities[SpeciesTypes.idOf(HellHound.class)] = HELLHOUND_CREATION_PROBABILITY;
+        probabilities[SpeciesTypes.idOf(Zombie.class)] = ZOMBIE_CREATION_PROBABILITY;
+        probabilities[SpeciesTypes.idOf(Dragon.class)] = DRAGON_CREATION_PROBABILITY;
+        return probabilities;
+    }
+
+    /**
+     * @return the probabilities, each multiplied by the scale
+     */
+    private static double[] scale(double[] probabilities, double scale) {
+        for (int typeId = 0; typeId < probabilities.length; typeId++) {
+            probabilities[typeId] *= scale;
+        }
+        return probabilities;
+    }
+
+    /**
+     * @return the counts of the species being simulated
+     */
+    private FieldStats getStats() {
+        if (store != null) {
+            return store.getStats();
+        }
+        return field.getStats();
+    }
+
+    /**
+     * Generate all diseases and weather and randomly populate the field will
+     * different types of species.
+     */
+    private void populate() {
+        createConditions();
+
+        field.clear();
+        Random rand = Randomizer.select(0, POPULATE_KEY);
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                // Try each type in turn; the first to be created fills the
+                // cell, otherwise the cell is left empty.
+                for (int typeId : POPULATE_ORDER) {
+                    if (rand.nextDouble() <= creationProbabilities[typeId]) {
+                        species.add(SpeciesTypes.create(typeId, true, field, field.getCell(row, col)));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create all diseases and weather afresh, none of them active.
+     */
+    private void createConditions() {
+        //Creating diseases
+        diseases.clear();
+        Disease ebola = new Ebola();
+        diseases.add(ebola);
+
+        //Creating weathers
+        weathers.clear();
+        Weather rain = new Rain();
+        weathers.add(rain);
+    }
+}
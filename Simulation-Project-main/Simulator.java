@@ -1,14 +1,16 @@
-import java.util.Random;
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.awt.Color;
 
 /**
  * A simple predator-prey simulator, based on a rectangular field
  * containing Dragons, Zombies, Hell-hounds, Humans and plants.
  * It also simulates different diseases and weather conditions - effecting
- * different species
+ * different species.
+ *
+ * This is the graphical front end: the simulation itself is run by a
+ * SimulationEngine, and its state is shown in a SimulatorView. After a
+ * step, a snapshot is handed to the view only if it has drawn the last
+ * one, so the simulation never waits for painting.
+ * Use HeadlessSimulator for runs that do not need to be displayed.
  *
  * @author David J. Barnes, Michael Kölling,
  * Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
@@ -20,39 +22,16 @@ public class Simulator {
     private static final int DEFAULT_WIDTH = 120;
     // The default depth of the grid.
     private static final int DEFAULT_DEPTH = 80;
-    //The probability of plant being created in any given grid position
-    private static final double GRASS_CREATION_PROBABILITY = 0.09;
-    // The probability that a zombie will be created in any given grid position.
-    private static final double HUMAN_CREATION_PROBABILITY = 0.08;
-    // The probability that a hell-hound will be created in any given grid position.
-    private static final double HELLHOUND_CREATION_PROBABILITY = 0.06;
-    // The probability that a zombie will be created in any given grid position.
-    private static final double ZOMBIE_CREATION_PROBABILITY = 0.04;
-    // The probability that a dragon will be created in any given grid position.
-    private static final double DRAGON_CREATION_PROBABILITY = 0.02;
-    //Randomizer to generate random disease and weather
-    private static final Random RAND = Randomizer.getRandom();
     //Used to slow down and speed up simulation time
-    private static int delay;
-    // The current step of the simulation.
-    public int step;
-    //List of diseases in the simulation
-    private List<Disease> diseases;
-    //List of weather in the simulation
-    private List<Weather> weathers;
-    // List of animals in the field.
-    private List<Species> species;
-    // The current state of the field.
-    private Field field;
+    private volatile int delay;
+    // The simulation being displayed.
+    private SimulationEngine engine;
     // A graphical view of the simulation.
     private SimulatorView view;
-    //Text showing which disease and weather are currently occurring
-    private String weatherText;
-    private String diseaseText;
-    //Fields holding the active weather and disease
-    private Weather currentWeather;
-    private Disease currentDisease;
-    private boolean isDay;
+    // Whether simulate is running steps.
+    private boolean running;
+    // Whether the Reset button has been pressed while steps were running.
+    private volatile boolean resetRequested;
 
     /**
      * Construct a simulation field with default size and initially set delay
@@ -77,12 +56,7 @@ public class Simulator {
             width = DEFAULT_WIDTH;
         }
 
-        currentWeather = null;
-        currentDisease = null;
-        diseases = new ArrayList<>();
-        weathers = new ArrayList<>();
-        species = new ArrayList<>();
-        field = new Field(depth, width);
+        engine = new SimulationEngine(depth, width);
 
         // Create a view of the state of each location in the field.
         view = new SimulatorView(depth, width, this);
@@ -93,9 +67,8 @@ public class Simulator {
         view.setColor(Zombie.class, new Color(222, 18, 250)); //purple
         view.setColor(HellHound.class, new Color(1, 211, 252)); //blue
 
-
-        // Setup a valid starting point.
-        reset();
+        // Show the starting state in the view.
+        showStatus();
     }
 
     public static void main(String[] args) {
@@ -121,170 +94,68 @@ public class Simulator {
      * @param numSteps The number of steps to run for.
      */
     public void simulate(int numSteps) {
-        for (int step = 1; step <= numSteps && view.isViable(field); step++) {
-            simulateOneStep();
-            delay(delay);   // Used to change the speed of the simulation
+        synchronized (this) {
+            running = true;
         }
-    }
-
-    /**
-     * Change boolean value of isDay to it's opposite
-     */
-    public void changeDayTime() {
-        isDay = !isDay;
-    }
-
-    /**
-     * Checks if there's a currentDisease.
-     * If no currentDisease, a random disease is generated and if
-     * creation requirements met - currentDisease is updated and activated.
-     * If currentDisease holds a disease - it's duration is decremented (each
-     * step causes to duration to go down).
-     * If the duration is now 0 - the current step is stored as the
-     * last step the disease was active for and the disease is deactivated.
-     */
-    public void handleDiseases() {
-        if (currentDisease == null) {
-            Disease randomDisease = diseases.get(RAND.nextInt(diseases.size()));
-            if (step > (randomDisease.getLastDiseaseStep() + randomDisease.getNumberOfStepsBeforeNextOutbreak() - 1) && RAND.nextDouble() <= randomDisease.getDiseaseCreationProbability()) {
-                currentDisease = randomDisease;
-                diseaseText = currentDisease.getName();
-                currentDisease.activate(field);
+        for (int step = 1; step <= numSteps && engine.isViable(); step++) {
+            if (resetRequested) {
+                resetRequested = false;
+                reset();
             }
-        } else {
-            currentDisease.decrementDuration();
-            diseaseText = currentDisease.getName(); //display disease is still spreading
-            if (currentDisease.getDuration() == 0) {
-                currentDisease.changeLastDiseaseStep(step);
-                currentDisease.deactivate(field);
-                currentDisease = null;
-                diseaseText = "none";
+            engine.simulateOneStep();
+            if (view.wantsFrame()) {
+                showStatus();
             }
+            delay(delay);   // Used to change the speed of the simulation
         }
-    }
-
-    /**
-     * Checks if there's a currentWeather.
-     * If no currentWeather, a random weather is generated and if
-     * creation requirements met - currentWeather is updated and activated.
-     * If currentWeather holds a disease - it's duration is decremented (each
-     * step causes to duration to go down).
-     * If the duration is now 0 - the current step is stored as the
-     * last step the weather was active for and the weather is deactivated.
-     */
-    public void handleWeather() {
-        if (currentWeather == null) {
-            Weather randomWeather = weathers.get(RAND.nextInt(weathers.size()));
-            if (step > (randomWeather.getLastWeatherStep() + randomWeather.getNumberOfStepsBeforeNextWeather()) && RAND.nextDouble() <= randomWeather.getWeatherOccurringProbability()) {
-                currentWeather = randomWeather;
-                weatherText = currentWeather.getName();
-                currentWeather.activate();
-            }
-        } else {
-            currentWeather.decrementDuration();
-            weatherText = currentWeather.getName(); //display weather is still occurring
-            if (currentWeather.getDuration() == 0) {
-                currentWeather.changeLastWeatherStep(step);
-                currentWeather.deactivate();
-                currentWeather = null;
-                weatherText = "clear";
+        // Always show where the run stopped.
+        showStatus();
+        synchronized (this) {
+            running = false;
+            if (resetRequested) {
+                resetRequested = false;
+                reset();
             }
         }
     }
 
     /**
-     * Run the simulation from its current state for a single step.
-     * Change day value if 5 steps have passed, handles disease & weather
-     * simulation and displays if any weather condition or disease is occurring.
-     * Iterate over the whole field, spreading diseases,
-     * applying effects of weather on different species and updating
-     * the state of each specie in the simulation.
+     * Run the simulation from its current state for a single step and
+     * display the result.
      */
     public void simulateOneStep() {
-        step++;
-        weatherText = "clear";
-        diseaseText = "none";
-        if (step % 5 == 0) {
-            changeDayTime();
-        }
-
-        handleDiseases();
-        handleWeather();
-
-        // Provide space for newborn animals.
-        List<Species> newAnimals = new ArrayList<>();
-        // Let all species act
-        for (Iterator<Species> it = species.iterator(); it.hasNext(); ) {
-            Species species = it.next();
-
-            species.act(newAnimals, isDay, currentDisease, currentWeather);
-            if (!species.isAlive()) {
-                it.remove();
-            }
-        }
-        // Add the newly born species objects to the main lists.
-        species.addAll(newAnimals);
-
-        view.showStatus(step, field, isDay, diseaseText, weatherText);
+        engine.simulateOneStep();
+        showStatus();
     }
 
     /**
      * Reset the simulation to a starting position.
      */
     public void reset() {
-        step = 0;
-        isDay = true;
-        species.clear();
-        populate();
-        weatherText = "clear";
-        diseaseText = "none";
-        // Show the starting state in the view.
-        view.showStatus(step, field, isDay, diseaseText, weatherText);
+        engine.reset();
+        showStatus();
     }
 
     /**
-     * Generate all diseases and weather and randomly populate the field will
-     * different types of species.
+     * Reset the simulation when it is next safe to: between two steps if
+     * simulate is running, or straight away if it is not. Called by the
+     * view's Reset button, on the event thread.
      */
-    private void populate() {
-        //Creating diseases
-        Disease ebola = new Ebola();
-        diseases.add(ebola);
-
-        //Creating weathers
-        Weather rain = new Rain();
-        weathers.add(rain);
-
-        field.clear();
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-
-                if (RAND.nextDouble() <= DRAGON_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Dragon dragon = new Dragon(true, field, location);
-                    species.add(dragon);
-                } else if (RAND.nextDouble() <= ZOMBIE_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Zombie zombie = new Zombie(true, field, location);
-                    species.add(zombie);
-                } else if (RAND.nextDouble() <= HELLHOUND_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    HellHound hellHound = new HellHound(true, field, location);
-                    species.add(hellHound);
-                } else if (RAND.nextDouble() <= HUMAN_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Human human = new Human(true, field, location);
-                    species.add(human);
-                } else if (RAND.nextDouble() <= GRASS_CREATION_PROBABILITY) {
-                    Location location = new Location(row, col);
-                    Grass plant = new Grass(true, field, location);
-                    species.add(plant);
-                }
-                // else leave the location empty.
-            }
+    public synchronized void requestReset() {
+        if (running) {
+            resetRequested = true;
+        } else {
+            reset();
         }
     }
 
+    /**
+     * Hand a snapshot of the current state of the engine to the view.
+     */
+    private void showStatus() {
+        view.publish(engine.snapshot());
+    }
+
     /**
      * Pause for a given time.
      *
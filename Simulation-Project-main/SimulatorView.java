@@ -1,7 +1,9 @@
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import javax.swing.*;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A graphical view of the simulation grid.
@@ -9,6 +11,16 @@ import java.util.Map;
  * representing its contents. It uses a default background color.
  * Colors for each type of species can be defined using the
  * setColor method.
+ * The field is drawn by writing the colour of each cell straight into the
+ * pixels of an image, looked up by species type id in a palette, and the
+ * image is copied to the screen once per frame. Only the cells a snapshot
+ * says have changed are redrawn; the whole field is redrawn when day turns
+ * to night or back, or the image is resized.
+ * The view never reads the live field. The simulation hands it immutable
+ * snapshots with publish, and a Swing timer on the event thread draws the
+ * latest one at most MAX_FRAMES_PER_SECOND times a second. A snapshot
+ * published before the last was drawn is combined with it, so the changes
+ * of both are drawn at the next frame.
  * Includes buttons for extra functionality - such as speeding up and slowing
  * down the simulation
  *
@@ -17,11 +29,20 @@ import java.util.Map;
  * @version 2016.02.29
  */
 public class SimulatorView extends JFrame {
+    private static final long serialVersionUID = 1L;
     // Colors used for empty locations - either day or night
     private static final Color DAY_COLOR = new Color(243,233,231);
     private static final Color NIGHT_COLOR = new Color(182,210,221);
     // Color used for objects that have no defined color.
     private static final Color UNKNOWN_COLOR = Color.gray;
+    // Color used for infected species.
+    private static final Color INFECTED_COLOR = Color.BLACK;
+    // Palette entries after those of each species type id.
+    private static final int INFECTED = SpeciesTypes.count();
+    private static final int DAY = INFECTED + 1;
+    private static final int NIGHT = INFECTED + 2;
+    // The most times per second the field is redrawn.
+    private static final int MAX_FRAMES_PER_SECOND = 60;
     private final String STEP_PREFIX = "Step: ";
     private final String POPULATION_PREFIX = "Population: ";
     private final String WEATHER_PREFIX = "Weather: ";
@@ -30,11 +51,16 @@ public class SimulatorView extends JFrame {
     private JLabel stepLabel, population, infoLabel, diseaseLabel, weatherLabel;
     private JButton slowDownButton, speedUpButton, stopButton, resetButton;
     private FieldView fieldView;
+    // The snapshot waiting to be drawn, or null if the last one has been
+    private final AtomicReference<FieldSnapshot> latest = new AtomicReference<>();
+    // The code drawn in each cell, indexed by row * width + col
+    private byte[] shown;
+    // Whether the empty cells are drawn in the day color
+    private boolean shownIsDay;
 
-    // A map for storing colors for participants in the simulation
-    private Map<Class, Color> colors;
-    // A statistics object computing and storing simulation information
-    private FieldStats stats;
+    // The RGB value drawn for each species type id, followed by the
+    // infected, day and night colors
+    private int[] palette;
 
     /**
      * Create a view of the given width and height.
@@ -44,8 +70,11 @@ public class SimulatorView extends JFrame {
      */
     public SimulatorView(int height, int width, Simulator sim) {
         simulator = sim;
-        stats = new FieldStats();
-        colors = new LinkedHashMap<>();
+        palette = new int[NIGHT + 1];
+        Arrays.fill(palette, UNKNOWN_COLOR.getRGB());
+        palette[INFECTED] = INFECTED_COLOR.getRGB();
+        palette[DAY] = DAY_COLOR.getRGB();
+        palette[NIGHT] = NIGHT_COLOR.getRGB();
 
         setTitle("Fox and Rabbit Simulation");
 
@@ -65,9 +94,7 @@ public class SimulatorView extends JFrame {
         speedUpButton.addActionListener(event -> handleSpeedUp());
 
         resetButton = new JButton("Reset");
-        resetButton.addActionListener(event -> new Thread(() -> {
-            simulator.reset();
-        }).start());
+        resetButton.addActionListener(event -> simulator.requestReset());
 
         setLocation(100, 50);
 
@@ -96,6 +123,8 @@ public class SimulatorView extends JFrame {
         contents.add(population, BorderLayout.NORTH);
         pack();
         setVisible(true);
+
+        new Timer(1000 / MAX_FRAMES_PER_SECOND, event -> showLatest()).start();
     }
 
     //Button events
@@ -124,7 +153,7 @@ public class SimulatorView extends JFrame {
      * @param color       The color to be used for the given class.
      */
     public void setColor(Class animalClass, Color color) {
-        colors.put(animalClass, color);
+        palette[SpeciesTypes.idOf(animalClass)] = color.getRGB();
     }
 
     /**
@@ -135,57 +164,79 @@ public class SimulatorView extends JFrame {
     }
 
     /**
-     * @return The color to be used for a given class of animal.
+     * Hand the view a new state of the simulation to show. Can be called
+     * from any thread; the snapshot is drawn at the next frame, together
+     * with any published before it that have not been drawn.
+     *
+     * @param snapshot The state to show.
      */
-    private Color getColor(Class animalClass) {
-        Color col = colors.get(animalClass);
-        if (col == null) {
-            // no color defined for this class
-            return UNKNOWN_COLOR;
-        } else {
-            return col;
+    public void publish(FieldSnapshot snapshot) {
+        FieldSnapshot waiting;
+        do {
+            waiting = latest.get();
+        } while (!latest.compareAndSet(waiting, snapshot.after(waiting)));
+    }
+
+    /**
+     * @return true if the last snapshot published has been drawn, so a new
+     * one would be shown rather than dropped.
+     */
+    public boolean wantsFrame() {
+        return latest.get() == null;
+    }
+
+    /**
+     * Draw the latest snapshot published, if it has not been drawn yet.
+     * Called by the frame timer on the event thread.
+     */
+    private void showLatest() {
+        FieldSnapshot snapshot = latest.getAndSet(null);
+        if (snapshot != null) {
+            showStatus(snapshot);
         }
     }
 
     /**
-     * Show the current status of the field.
+     * Show the status of the field in a snapshot.
      * If an animal is inducted it's colour changes
      *
-     * @param step        Which iteration step it is.
-     * @param field       The field whose status is to be displayed.
-     * @param isDay       a boolean value to show if it's day or night.
-     * @param diseaseText The current disease
-     * @param weatherText the current weather
+     * @param snapshot The state of the simulation to show.
      */
-    public void showStatus(int step, Field field, boolean isDay, String diseaseText, String weatherText) {
+    private void showStatus(FieldSnapshot snapshot) {
         if (!isVisible()) {
             setVisible(true);
         }
 
-        stepLabel.setText(STEP_PREFIX + step);
-        diseaseLabel.setText(DISEASE_PREFIX + diseaseText);
-        weatherLabel.setText(WEATHER_PREFIX + weatherText);
-        stats.reset();
+        stepLabel.setText(STEP_PREFIX + snapshot.getStep());
+        diseaseLabel.setText(DISEASE_PREFIX + snapshot.getDiseaseText());
+        weatherLabel.setText(WEATHER_PREFIX + snapshot.getWeatherText());
+        boolean resized = fieldView.preparePaint();
 
-        fieldView.preparePaint();
-
-        for (int row = 0; row < field.getDepth(); row++) {
-            for (int col = 0; col < field.getWidth(); col++) {
-                Object animal = field.getObjectAt(row, col);
-                if (animal != null) {
-
-                    stats.incrementCount(animal.getClass());
-//                    fieldView.drawMark(col, row, ((Species) animal).isInfected() ? new Color(getColor(animal.getClass()).getRed() / 2, getColor(animal.getClass()).getGreen() / 2, getColor(animal.getClass()).getBlue() / 2) : getColor(animal.getClass()));
-                    fieldView.drawMark(col, row, ((Species) animal).isInfected() ? Color.BLACK : getColor(animal.getClass()));
+        int width = snapshot.getWidth();
+        if (shown == null) {
+            shown = new byte[snapshot.getDepth() * width];
+            Arrays.fill(shown, FieldSnapshot.EMPTY);
+            resized = true;
+        }
+        for (int i = 0; i < snapshot.getChangedCount(); i++) {
+            shown[(int) snapshot.getChangedCell(i)] = snapshot.getChangedCode(i);
+        }
 
-                } else {
-                    fieldView.drawMark(col, row, isDay ? DAY_COLOR : NIGHT_COLOR);
-                }
+        int empty = palette[snapshot.getIsDay() ? DAY : NIGHT];
+        if (resized || snapshot.isFull() || shownIsDay != snapshot.getIsDay()) {
+            for (int cell = 0; cell < shown.length; cell++) {
+                byte code = shown[cell];
+                fieldView.drawMark(cell % width, cell / width, code == FieldSnapshot.EMPTY ? empty : palette[code]);
+            }
+            shownIsDay = snapshot.getIsDay();
+        } else {
+            for (int i = 0; i < snapshot.getChangedCount(); i++) {
+                int cell = (int) snapshot.getChangedCell(i);
+                byte code = shown[cell];
+                fieldView.drawMark(cell % width, cell / width, code == FieldSnapshot.EMPTY ? empty : palette[code]);
             }
         }
-        stats.countFinished();
-
-        population.setText(POPULATION_PREFIX + stats.getPopulationDetails(field));
+        population.setText(POPULATION_PREFIX + snapshot.getPopulationDetails());
         fieldView.repaint();
     }
 
@@ -195,7 +246,7 @@ public class SimulatorView extends JFrame {
      * @return true If there is more than one species alive.
      */
     public boolean isViable(Field field) {
-        return stats.isViable(field);
+        return field.getStats().isViable();
     }
 
     /**
@@ -207,12 +258,14 @@ public class SimulatorView extends JFrame {
      * for your project if you like.
      */
     private class FieldView extends JPanel {
+        private static final long serialVersionUID = 1L;
         private final int GRID_VIEW_SCALING_FACTOR = 6;
         Dimension size;
         private int gridWidth, gridHeight;
         private int xScale, yScale;
-        private Graphics g;
-        private Image fieldImage;
+        private BufferedImage fieldImage;
+        // The pixels of fieldImage, one int of RGB per pixel, row by row
+        private int[] pixels;
 
         /**
          * Create a new FieldView component.
@@ -234,12 +287,13 @@ public class SimulatorView extends JFrame {
         /**
          * Prepare for a new round of painting. Since the component
          * may be resized, compute the scaling factor again.
+         *
+         * @return true if the image was made afresh, so every cell must
+         * be drawn again
          */
-        public void preparePaint() {
+        public boolean preparePaint() {
             if (!size.equals(getSize())) {  // if the size has changed...
                 size = getSize();
-                fieldImage = fieldView.createImage(size.width, size.height);
-                g = fieldImage.getGraphics();
 
                 xScale = size.width / gridWidth;
                 if (xScale < 1) {
@@ -249,15 +303,30 @@ public class SimulatorView extends JFrame {
                 if (yScale < 1) {
                     yScale = GRID_VIEW_SCALING_FACTOR;
                 }
+                fieldImage = new BufferedImage(gridWidth * xScale, gridHeight * yScale, BufferedImage.TYPE_INT_RGB);
+                pixels = ((DataBufferInt) fieldImage.getRaster().getDataBuffer()).getData();
+                // The gaps left between the marks
+                Arrays.fill(pixels, getBackground().getRGB());
+                return true;
             }
+            return false;
         }
 
         /**
-         * Paint on grid location on this field in a given color.
+         * Paint on grid location on this field in a given color, by
+         * writing its pixels into the image.
+         *
+         * @param rgb the color, as given by Color.getRGB
          */
-        public void drawMark(int x, int y, Color color) {
-            g.setColor(color);
-            g.fillRect(x * xScale, y * yScale, xScale - 1, yScale - 1);
+        public void drawMark(int x, int y, int rgb) {
+            int imageWidth = gridWidth * xScale;
+            int start = y * yScale * imageWidth + x * xScale;
+            int markWidth = Math.max(1, xScale - 1);
+            int markHeight = Math.max(1, yScale - 1);
+            for (int line = 0; line < markHeight; line++) {
+                int from = start + line * imageWidth;
+                Arrays.fill(pixels, from, from + markWidth, rgb);
+            }
         }
 
         /**
@@ -265,6 +334,7 @@ public class SimulatorView extends JFrame {
          * internal image to screen.
          */
         public void paintComponent(Graphics g) {
+            super.paintComponent(g);
             if (fieldImage != null) {
                 Dimension currentSize = getSize();
                 if (size.equals(currentSize)) {
@@ -1,3 +1,4 @@
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -9,23 +10,44 @@ import java.util.*;
  * @version 2016.02.29 (2)
  */
 public abstract class Species {
-    //Randomizer to help generate random ages and control breeding
-    private static final Random RAND = Randomizer.getRandom();
     //The probability of a species being male of female
     private static final double DECIDE_SEX = 0.5;
+    // The number of bytes a species takes in a checkpoint
+    public static final int CHECKPOINT_BYTES = 30;
 
     // Whether the species is alive or not.
     private boolean alive;
     // The species' field.
     private Field field;
-    // The species' position in the field.
-    private Location location;
-
-    protected int energyLevel;
-    private int age;
+    // The species' position in the field, as a cell index, or -1 if it
+    // is not in the field.
+    private long cell;
+
+    // The type id of this species' class
+    private final int typeId;
+    // The id given to this species by its field, or 0 if it has none.
+    private int occupantId;
+    // The key of this species' random stream, used when the simulation
+    // draws from random streams rather than one shared generator.
+    private long randomKey;
+    // The energy level of the species as of fedStep. Hunger, and a plant's
+    // want of rain, is not counted off step by step: the energy level now
+    // is this less the steps the species has gone hungry in since.
+    private int energyLevel;
+    // The step the energy level was last changed at
+    private int fedStep;
+    // The last step the species has gone hungry in. A predator goes hungry
+    // as it starts its act and a plant as it ends it, so a disease reading
+    // the energy level part way through a step sees it as it is then.
+    private int chargedStep;
+    // The step in whose act the species starves, if it is not fed first
+    private int starvationStep;
+    // The step the species was born at, so its age is the field's current
+    // step less this, and never needs to be counted up.
+    private int birthStep;
     private boolean isFemale;
-    //The different diseases carried by the specie
-    private List<Disease> diseasesCarried;
+    //The diseases carried by the specie, as a mask of disease bits
+    private int diseaseMask;
 
 
     /**
@@ -38,23 +60,50 @@ public abstract class Species {
      * a newborn's energy.
      *
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      * @param randomAge Determines if a random age should be assigned
      */
-    public Species(boolean randomAge, Field field, Location location) {
-        diseasesCarried = new ArrayList<>();
-        age = 0;
+    public Species(boolean randomAge, Field field, long cell) {
+        typeId = SpeciesTypes.idOf(getClass());
+        init(randomAge, field, cell);
+    }
+
+    /**
+     * Bring a dead species back to life as a newborn at location in field,
+     * in just the state the constructor leaves a newborn in, and drawing
+     * the same random numbers. Used by SpeciesPool.
+     *
+     * @param field The field the newborn is in.
+     * @param cell  The cell within the field.
+     */
+    void reset(Field field, long cell) {
+        init(false, field, cell);
+    }
+
+    /**
+     * Set up a new species at location in field, as described by the
+     * constructor.
+     */
+    private void init(boolean randomAge, Field field, long cell) {
+        randomKey = Randomizer.deriveKey(cell);
+        birthStep = field.getStep();
+        chargedStep = birthStep;
+        fedStep = birthStep;
+        energyLevel = 0;
         alive = true;
         this.field = field;
-        setLocation(location);
+        this.cell = -1;
+        setCell(cell);
 
+        Random rand = Randomizer.current();
         if (randomAge) {
-            setAge(RAND.nextInt(getMaxAge()));
-            changeEnergyLevel(RAND.nextInt(getMaxEnergyLevel()) + 1);
+            setAge(rand.nextInt(getMaxAge()));
+            changeEnergyLevel(rand.nextInt(getMaxEnergyLevel()) + 1);
         } else {
             changeEnergyLevel(getNewBornEnergyLevel());
         }
-        isFemale = (RAND.nextDouble() <= DECIDE_SEX);
+        isFemale = (rand.nextDouble() <= DECIDE_SEX);
+        field.updateBreeding(this);
     }
 
     /**
@@ -73,9 +122,9 @@ public abstract class Species {
      *
      * @param newSpecies
      * @param field      The grid in which the animal will be born
-     * @param loc        The location of the new animal's birth
+     * @param cell       The cell of the new animal's birth
      */
-    abstract protected void addBaby(List<Species> newSpecies, Field field, Location loc);
+    abstract protected void addBaby(List<Species> newSpecies, Field field, long cell);
 
     /**
      * @return the age at which the specie can breed
@@ -125,6 +174,69 @@ public abstract class Species {
     }
 
 
+    /**
+     * @return the type id of this species' class
+     */
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * @return the occupant id given to this species by its field
+     */
+    int getOccupantId() {
+        return occupantId;
+    }
+
+    /**
+     * Record the occupant id given to this species by its field.
+     *
+     * @param id the new occupant id
+     */
+    void setOccupantId(int id) {
+        occupantId = id;
+    }
+
+    /**
+     * @return the key of this species' random stream, for Randomizer.select
+     */
+    long getRandomKey() {
+        return randomKey;
+    }
+
+    /**
+     * Return the age of the species: the number of steps it has acted in,
+     * once its act in the current step has begun. Only meaningful while
+     * it is alive.
+     *
+     * @return the age of the instance of this species
+     */
+    protected int getAge() {
+        return field.getStep() - birthStep;
+    }
+
+    /**
+     * @return the step in whose act the species dies of old age or hunger,
+     * if it is not fed first
+     */
+    protected int getExpiryStep() {
+        return Math.min(getOldAgeStep(), starvationStep);
+    }
+
+    /**
+     * @return the step in whose act the species dies of old age
+     */
+    private int getOldAgeStep() {
+        return birthStep + getMaxAge() + 1;
+    }
+
+    /**
+     * @return the step in whose act the species reaches breeding age
+     */
+    protected int getMaturityStep() {
+        return birthStep + getBreedingAge();
+    }
+
     /**
      * Sets the age of the species to the value specified by
      * the parameter number.
@@ -132,7 +244,10 @@ public abstract class Species {
      * @param number the new age of tbe species
      */
     protected void setAge(int number) {
-        age = number;
+        birthStep = field.getStep() - number;
+        if (alive) {
+            field.updateBreeding(this);
+        }
     }
 
     /**
@@ -150,20 +265,25 @@ public abstract class Species {
      */
     protected void setDead() {
         alive = false;
-        if (location != null) {
-            field.clear(location);
-            location = null;
+        if (cell >= 0) {
+            field.clear(cell);
+            field.release(this);
+            cell = -1;
             field = null;
         }
     }
 
     /**
-     * Return the location of a species.
+     * Return the location of a species. A new Location is made on each call,
+     * so code run every step should use getCell instead.
      *
-     * @return The species' location.
+     * @return The species' location, or null if it is not in the field.
      */
     protected Location getLocation() {
-        return location;
+        if (cell < 0) {
+            return null;
+        }
+        return field.getLocation(cell);
     }
 
     /**
@@ -172,11 +292,29 @@ public abstract class Species {
      * @param newLocation The species' new location.
      */
     protected void setLocation(Location newLocation) {
-        if (location != null) {
-            field.clear(location);
+        setCell(field.getCell(newLocation.getRow(), newLocation.getCol()));
+    }
+
+    /**
+     * Return the cell of the field the species is in.
+     *
+     * @return The species' cell index, or -1 if it is not in the field.
+     */
+    protected long getCell() {
+        return cell;
+    }
+
+    /**
+     * Place the species in the new cell given.
+     *
+     * @param newCell The species' new cell index.
+     */
+    protected void setCell(long newCell) {
+        if (cell >= 0) {
+            field.clear(cell);
         }
-        location = newLocation;
-        field.place(this, newLocation);
+        cell = newCell;
+        field.place(this, newCell);
     }
 
     /**
@@ -194,7 +332,14 @@ public abstract class Species {
      * @param disease the disease it will now carry
      */
     public void addDisease(Disease disease) {
-        diseasesCarried.add(disease);
+        if ((diseaseMask & disease.getBit()) == 0) {
+            boolean wasInfected = isInfected();
+            diseaseMask |= disease.getBit();
+            disease.addCarrier(this);
+            if (!wasInfected) {
+                markInfected();
+            }
+        }
     }
 
     /**
@@ -203,7 +348,22 @@ public abstract class Species {
      * @param disease the disease being removed
      */
     public void removeDisease(Disease disease) {
-        diseasesCarried.remove(disease);
+        if ((diseaseMask & disease.getBit()) != 0) {
+            diseaseMask &= ~disease.getBit();
+            if (!isInfected()) {
+                markInfected();
+            }
+        }
+    }
+
+    /**
+     * Tell the field the specie is in that it has become infected or been
+     * cured, which changes the way it is drawn and the infected count.
+     */
+    private void markInfected() {
+        if (field != null && cell >= 0) {
+            field.markInfected(cell, isInfected());
+        }
     }
 
     /**
@@ -212,24 +372,151 @@ public abstract class Species {
      * @param disease the disease being checked
      */
     public boolean doesCarryDisease(Disease disease) {
-        return (diseasesCarried.contains(disease));
+        return (diseaseMask & disease.getBit()) != 0;
     }
 
     /**
-     * @return the list of diseases the specie carries
+     * @return the diseases the specie carries, with the bit of each
+     * disease set
      */
-    public List<Disease> getDiseasesCarried() {
-        return diseasesCarried;
+    public int getDiseaseMask() {
+        return diseaseMask;
     }
 
     /**
-     * Returns if a specie is infected. If the lists containing diseases carried
+     * Returns if a specie is infected. If the mask of diseases carried
      * is empty then the specie is not infected
      *
      * @return true if it's carrying at least one disease, otherwise false
      */
     public boolean isInfected() {
-        return (diseasesCarried.size() != 0);
+        return diseaseMask != 0;
+    }
+
+    /**
+     * Write the state of the species to a checkpoint: its type id, cell,
+     * age, energy level, sex, the diseases it carries and its random key.
+     *
+     * @param buffer the buffer to write CHECKPOINT_BYTES bytes to
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) typeId);
+        buffer.putLong(cell);
+        buffer.putInt(getAge());
+        buffer.putInt(getEnergyLevel());
+        buffer.put((byte) (isFemale ? 1 : 0));
+        buffer.putInt(diseaseMask);
+        buffer.putLong(randomKey);
+    }
+
+    /**
+     * Read a species written by writeTo and place it in the field, as it
+     * was when the checkpoint was written.
+     *
+     * @param buffer   the buffer to read CHECKPOINT_BYTES bytes from
+     * @param field    the field to place the species in
+     * @param diseases the diseases of the simulation, which the species is
+     *                 made a carrier of as its disease mask says
+     * @return the species
+     */
+    public static Species readFrom(ByteBuffer buffer, Field field, List<Disease> diseases) {
+        int typeId = buffer.get();
+        long cell = buffer.getLong();
+        Species specie = SpeciesTypes.create(typeId, false, field, cell);
+        specie.setAge(buffer.getInt());
+        specie.setEnergyLevel(buffer.getInt());
+        specie.isFemale = buffer.get() != 0;
+        field.updateBreeding(specie);
+        int mask = buffer.getInt();
+        for (Disease disease : diseases) {
+            if ((mask & disease.getBit()) != 0) {
+                specie.addDisease(disease);
+            }
+        }
+        specie.randomKey = buffer.getLong();
+        return specie;
+    }
+
+    /**
+     * Return the energy level of the species: its energy level when last
+     * changed, less one for each step it has gone hungry in since.
+     *
+     * @return the current energy level
+     */
+    public int getEnergyLevel() {
+        return energyLevel - (hungerClock(getChargedStep()) - hungerClock(fedStep));
+    }
+
+    /**
+     * Set the energy level of the species as of now, and work out the step
+     * it will starve at if it goes hungry in every step it can from now on.
+     *
+     * @param energy the new energy level, at least 1
+     */
+    private void setEnergyLevel(int energy) {
+        energyLevel = energy;
+        fedStep = getChargedStep();
+        starvationStep = hungerClockStep(hungerClock(fedStep) + energy);
+    }
+
+    /**
+     * @return the current step if the species has gone hungry in it yet,
+     * otherwise the step before
+     */
+    private int getChargedStep() {
+        int step = field.getStep();
+        return chargedStep == step ? step : step - 1;
+    }
+
+    /**
+     * Return the number of steps up to the given step that a species of
+     * this kind goes hungry in: every step, or only the day steps if it
+     * sleeps at night. Rain is not counted here; a plant is let off each
+     * step it rains in by skipHunger.
+     *
+     * @param step a step of the simulation
+     * @return the number of hungry steps from step 0 up to it
+     */
+    private int hungerClock(int step) {
+        return getDoesSleep() ? DayCycle.daySteps(step) : step;
+    }
+
+    /**
+     * The inverse of hungerClock.
+     *
+     * @param clock a number of hungry steps
+     * @return the step the species goes hungry in for the clock'th time
+     */
+    private int hungerClockStep(int clock) {
+        return getDoesSleep() ? DayCycle.dayStep(clock) : clock;
+    }
+
+    /**
+     * Make the species go hungry in the current step, killing it if this
+     * is the step it starves at. The energy level follows from the steps
+     * gone hungry in, so nothing is counted here.
+     */
+    protected void chargeHunger() {
+        if (!alive) {
+            return;
+        }
+        chargedStep = field.getStep();
+        if (chargedStep >= starvationStep) {
+            setDead();
+        }
+    }
+
+    /**
+     * Let the species off going hungry in the current step, keeping its
+     * energy level as it is.
+     */
+    protected void skipHunger() {
+        if (!alive) {
+            return;
+        }
+        int energy = getEnergyLevel();
+        chargedStep = field.getStep();
+        setEnergyLevel(energy);
     }
 
     /**
@@ -241,15 +528,15 @@ public abstract class Species {
      * @param newEnergy the value the energyLevel will be updated to
      */
     public void changeEnergyLevel(int newEnergy) {
-        int newEnergyLevel = energyLevel + newEnergy;
+        if (!alive) {
+            return;
+        }
+        int newEnergyLevel = getEnergyLevel() + newEnergy;
 
         if (newEnergyLevel <= 0) {
             setDead();
-        } else if (newEnergyLevel > getMaxEnergyLevel()) {
-            energyLevel = getMaxEnergyLevel();
-            ;
         } else {
-            energyLevel = newEnergyLevel;
+            setEnergyLevel(Math.min(newEnergyLevel, getMaxEnergyLevel()));
         }
     }
 
@@ -259,16 +546,24 @@ public abstract class Species {
      * @return true if the species can breed, false otherwise.
      */
     public boolean canBreed() {
-        return age >= getBreedingAge();
+        return getAge() >= getBreedingAge();
     }
 
     /**
-     * Increments the age of a species. The instance of the species
-     * will be killed if it's reached past the maximum age
+     * Act on the age of a species, at the start of its act. The age itself
+     * follows from the birth step, so nothing is counted; but the field
+     * is told when the species reaches breeding age, and the instance of
+     * the species will be killed if it's reached past the maximum age
      */
-    public void incrementAge() {
-        age++;
-        if (age > getMaxAge()) {
+    public void updateAge() {
+        if (!alive) {
+            return;
+        }
+        int step = field.getStep();
+        if (step == getMaturityStep()) {
+            field.updateBreeding(this);
+        }
+        if (step >= getOldAgeStep()) {
             setDead();
         }
     }
@@ -283,8 +578,9 @@ public abstract class Species {
      */
     public int breed() {
         int births = 0;
-        if (canBreed() && hasMate() && RAND.nextDouble() <= getBreedingProbability()) {
-            births = RAND.nextInt(getBirthLimit()) + 1;
+        Random rand = Randomizer.current();
+        if (canBreed() && hasMate() && rand.nextDouble() <= getBreedingProbability()) {
+            births = rand.nextInt(getBirthLimit()) + 1;
         }
         return births;
     }
@@ -298,34 +594,28 @@ public abstract class Species {
      */
     public void giveBirth(List<Species> newSpecies) {
         // New foxes are born into adjacent locations.
-        // Get a list of adjacent free locations.
+        // Take the adjacent locations in a random order, and use the free ones.
         Field field = getField();
-        List<Location> free = field.getFreeAdjacentLocations(getLocation());
+        byte[] adjacent = field.adjacentDirections(cell);
         int births = breed();
-        for (int b = 0; b < births && free.size() > 0; b++) {
-            Location loc = free.remove(0);
-            addBaby(newSpecies, field, loc);
+        for (int i = 0; i < adjacent.length && births > 0; i++) {
+            long next = field.adjacentCell(cell, adjacent[i]);
+            if (field.isEmpty(next)) {
+                addBaby(newSpecies, field, next);
+                births--;
+            }
         }
     }
 
     /**
      * Checks if the current species has a mate in a neighbouring cell.
      * The mate should be of the same species, opposite gender and in
-     * a neighbouring cell.
+     * a neighbouring cell. The field's bitplane of males old enough to
+     * breed is read, so no neighbouring species is looked at.
      *
      * @return true if the species has a mate, false otherwise
      */
     public boolean hasMate() {
-        Field field = getField();
-        List<Location> adjacent = field.adjacentLocations(getLocation(), 1);
-
-        for (Location where : adjacent) {
-            Species speciesInNextCell = (Species) field.getObjectAt(where);
-
-            if (speciesInNextCell != null && this.getClass().equals(speciesInNextCell.getClass()) && this.getIsFemale() && !speciesInNextCell.getIsFemale() && speciesInNextCell.canBreed()) {
-                return true;
-            }
-        }
-        return false;
+        return getIsFemale() && getField().hasAdjacentBreedingMale(typeId, cell);
     }
 }
@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the dead species of a field, by type, so that they can be brought
+ * back as newborns of the same type instead of new ones being made. Each
+ * field has its own pool, so no two simulations share one.
+ *
+ * A species may only be recycled once nothing refers to it any more but
+ * the pool, as it will come back to life: so the engine hands species to
+ * the pool as it drops them from its lists, and only species that died
+ * free of disease are kept, since a disease keeps the species it infected
+ * until it is deactivated. The pool is not safe to use from more than one
+ * thread at once.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class SpeciesPool {
+    // The dead species waiting to be reused, by type id
+    private final List<List<Species>> free;
+
+    /**
+     * Create an empty pool.
+     */
+    public SpeciesPool() {
+        free = new ArrayList<>();
+        for (int typeId = 0; typeId < SpeciesTypes.count(); typeId++) {
+            free.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Keep a species that has died so that it can be reused. Species that
+     * are alive, or died carrying a disease, are not kept.
+     *
+     * @param specie a species no longer referred to by the simulation
+     */
+    public void recycle(Species specie) {
+        if (!specie.isAlive() && !specie.isInfected()) {
+            free.get(specie.getTypeId()).add(specie);
+        }
+    }
+
+    /**
+     * Bring a dead species of the given type back as a newborn, in just
+     * the state a newly constructed one would be in.
+     *
+     * @param typeId the type id of the species wanted
+     * @param field  the field to place the newborn in
+     * @param cell   the cell to place it in
+     * @return the newborn, or null if no species of that type are kept
+     */
+    public Species reuse(int typeId, Field field, long cell) {
+        List<Species> kept = free.get(typeId);
+        if (kept.isEmpty()) {
+            return null;
+        }
+        Species specie = kept.remove(kept.size() - 1);
+        specie.reset(field, cell);
+        return specie;
+    }
+
+    /**
+     * Drop every species kept.
+     */
+    public void clear() {
+        for (List<Species> kept : free) {
+            kept.clear();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.List;
+
+/**
+ * Gives each type of species in the simulation a small, dense integer id.
+ * Per-type data (counts, parameters, which types eat which) can then be
+ * kept in arrays indexed by type id rather than in maps keyed by class.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class SpeciesTypes {
+    // Every concrete species, in type id order
+    private static final List<Class<? extends Species>> TYPES =
+            List.of(Grass.class, Human.class, Dragon.class, Zombie.class, HellHound.class);
+
+    /**
+     * @return the number of species types
+     */
+    public static int count() {
+        return TYPES.size();
+    }
+
+    /**
+     * Return the type id of a class of species.
+     *
+     * @param specie the class of the species
+     * @return the type id, between 0 and count() - 1
+     */
+    public static int idOf(Class<?> specie) {
+        int id = TYPES.indexOf(specie);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown species: " + specie.getName());
+        }
+        return id;
+    }
+
+    /**
+     * @param id a type id
+     * @return the class of species with that type id
+     */
+    public static Class<? extends Species> classOf(int id) {
+        return TYPES.get(id);
+    }
+
+    /**
+     * Create a species of the given type, through the constructor every
+     * species has taking (randomAge, field, cell).
+     *
+     * @param id        a type id
+     * @param randomAge true for a random age and energy, false for a newborn
+     * @param field     the field to place the species in
+     * @param cell      the cell to place it in
+     * @return the new species
+     */
+    public static Species create(int id, boolean randomAge, Field field, long cell) {
+        try {
+            return classOf(id).getConstructor(boolean.class, Field.class, long.class)
+                    .newInstance(randomAge, field, cell);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a " + classOf(id).getName(), e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Random;
+
+/**
+ * A counter-based random generator. Rather than one long sequence that every
+ * part of the simulation takes turns drawing from, it gives a separate
+ * stream for each (seed, step, key), where the key names whoever is making
+ * the decisions - normally a species. The numbers in a stream depend only on
+ * those three values and on how many have been drawn from it, so the same
+ * decisions are made whichever thread makes them and in whatever order.
+ * The streams come from the SplitMix64 generator, with the stream's key
+ * used as the start of its counter.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class StreamRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    // The increment of the SplitMix64 counter
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    // The seed of the whole run
+    private final long streamSeed;
+    // The start of the counter of the selected stream
+    private long base;
+    // The counter of the selected stream
+    private long state;
+
+    /**
+     * Create a generator for the given seed. Stream (0, 0) is selected.
+     *
+     * @param streamSeed the seed of the whole run
+     */
+    public StreamRandom(long streamSeed) {
+        this.streamSeed = streamSeed;
+        select(0, 0);
+    }
+
+    /**
+     * Start drawing numbers from the stream for the given step and key.
+     * Selecting a stream again starts it again from its first number.
+     *
+     * @param step the step of the simulation
+     * @param key  whose decisions the numbers are for
+     * @return this generator
+     */
+    public StreamRandom select(long step, long key) {
+        base = mix(mix(mix(streamSeed) + step) + key);
+        state = base;
+        return this;
+    }
+
+    /**
+     * Derive a key from the selected stream, for example for a species born
+     * while it is selected. Different values give unrelated keys, and nothing
+     * is drawn from the stream.
+     *
+     * @param value what the new key is for, such as a cell index
+     * @return a key for a new stream
+     */
+    public long deriveKey(long value) {
+        return mix(base ^ mix(value + GOLDEN_GAMMA));
+    }
+
+    /**
+     * @return the seed of the whole run
+     */
+    public long getStreamSeed() {
+        return streamSeed;
+    }
+
+    /**
+     * Draw the next number from the selected stream. All of the other
+     * methods of Random are built on this one.
+     *
+     * @param bits the number of random bits wanted
+     * @return the next number, in its lowest bits
+     */
+    @Override
+    protected int next(int bits) {
+        state += GOLDEN_GAMMA;
+        return (int) (mix(state) >>> (64 - bits));
+    }
+
+    /**
+     * The SplitMix64 finalizer, which scrambles every bit of a value.
+     *
+     * @param z the value
+     * @return the scrambled value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a time series of the simulation to a CSV file, one row per step:
+ * the step, the disease and weather occurring, the number of infected
+ * species, and the count, births and deaths of each type of species.
+ * The simulation thread only copies the numbers of a step into a slot of a
+ * ring buffer allocated up front, so recording costs a few array writes.
+ * A background writer thread turns the filled slots into text and writes
+ * them to the file in batches. If the writer falls a whole ring behind,
+ * the simulation waits for it rather than losing rows. If the writer
+ * fails, the error is thrown from the next call of record or close.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class Telemetry implements AutoCloseable {
+    // The number of steps the ring buffer holds
+    private static final int CAPACITY = 4096;
+    // The size of the text buffer the writer fills before writing to the file
+    private static final int BATCH_BYTES = 1 << 16;
+    // How long the writer sleeps when there is nothing to write
+    private static final long IDLE_NANOS = 10_000_000;
+    // The ints of a row before the per-type counts: step, disease id,
+    // weather id and the number infected
+    private static final int HEADER_INTS = 4;
+
+    // The number of ints in one row of the ring buffer
+    private final int rowInts;
+    // The rows of the steps recorded but not yet written
+    private final int[] ring;
+    // The file being written
+    private final FileChannel channel;
+    // The thread writing rows to the file
+    private final Thread writer;
+    // The number of rows recorded, and the number the writer has taken.
+    // Each is only changed by one thread.
+    private volatile long recorded;
+    private volatile long taken;
+    // Set when no more rows will be recorded
+    private volatile boolean closed;
+    // The error the writer stopped on, if any
+    private volatile Throwable failure;
+
+    /**
+     * Start recording to the given file, replacing it if it exists. The
+     * column names are written straight away.
+     *
+     * @param file the CSV file to write
+     * @throws IOException if the file cannot be opened
+     */
+    public Telemetry(Path file) throws IOException {
+        rowInts = HEADER_INTS + 3 * SpeciesTypes.count();
+        ring = new int[CAPACITY * rowInts];
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        StringBuilder header = new StringBuilder("step,disease,weather,infected");
+        for (String column : new String[]{"", " births", " deaths"}) {
+            for (int typeId = 0; typeId < SpeciesTypes.count(); typeId++) {
+                header.append(',').append(SpeciesTypes.classOf(typeId).getName()).append(column);
+            }
+        }
+        header.append('\n');
+        write(ByteBuffer.wrap(header.toString().getBytes(StandardCharsets.US_ASCII)));
+
+        writer = new Thread(this::writeRows, "Telemetry writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Record the state of the simulation at the end of a step. Must only be
+     * called from one thread.
+     *
+     * @param step     the step just run
+     * @param disease  the disease spreading, or null
+     * @param weather  the weather occurring, or null
+     * @param infected the number of species carrying a disease
+     * @param stats    the counts of the species, with the births and deaths
+     *                 of the step
+     * @throws UncheckedIOException  if the writer could not write to the file
+     * @throws IllegalStateException if closed, or the writer failed otherwise
+     */
+    public void record(int step, Disease disease, Weather weather, int infected, FieldStats stats) {
+        if (closed) {
+            throw new IllegalStateException("Telemetry has been closed");
+        }
+        while (recorded - taken == CAPACITY) {
+            // The writer is a whole ring behind; wait for it to catch up,
+            // unless it has stopped.
+            if (failure != null) {
+                break;
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        if (failure != null) {
+            if (failure instanceof IOException) {
+                throw new UncheckedIOException((IOException) failure);
+            }
+            throw new IllegalStateException("The telemetry writer failed", failure);
+        }
+        int types = SpeciesTypes.count();
+        int row = (int) (recorded % CAPACITY) * rowInts;
+        ring[row] = step;
+        ring[row + 1] = disease == null ? -1 : disease.getId();
+        ring[row + 2] = weather == null ? -1 : weather.getId();
+        ring[row + 3] = infected;
+        for (int typeId = 0; typeId < types; typeId++) {
+            ring[row + HEADER_INTS + typeId] = stats.getCount(typeId);
+            ring[row + HEADER_INTS + types + typeId] = stats.getBirths(typeId);
+            ring[row + HEADER_INTS + 2 * types + typeId] = stats.getDeaths(typeId);
+        }
+        // Publishes the row to the writer.
+        recorded++;
+    }
+
+    /**
+     * Stop recording, wait for every row recorded to be written, and close
+     * the file.
+     *
+     * @throws IOException if a row could not be written, or the writer
+     *                     failed otherwise
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        } else if (failure != null) {
+            throw new IOException("The telemetry writer failed", failure);
+        }
+    }
+
+    /**
+     * The writer thread: write the rows recorded until closed. Whatever it
+     * stops on is kept as the failure, so record never waits forever for a
+     * writer that has stopped.
+     */
+    private void writeRows() {
+        try {
+            writeRowsUntilClosed();
+        } catch (Throwable e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Take the rows recorded, as text, and write them until closed.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeRowsUntilClosed() throws IOException {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            // Read closed before recorded, so no row recorded before
+            // closing is missed.
+            boolean closing = closed;
+            long end = recorded;
+            if (taken == end) {
+                if (closing) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_NANOS);
+                continue;
+            }
+            for (long next = taken; next < end; next++) {
+                line.setLength(0);
+                appendRow(line, (int) (next % CAPACITY) * rowInts);
+                if (batch.remaining() < line.length()) {
+                    flush(batch);
+                }
+                for (int i = 0; i < line.length(); i++) {
+                    batch.put((byte) line.charAt(i));
+                }
+                // Frees the slot for record.
+                taken = next + 1;
+            }
+            flush(batch);
+        }
+    }
+
+    /**
+     * Append one row of the ring buffer to a line of CSV text.
+     */
+    private void appendRow(StringBuilder line, int row) {
+        line.append(ring[row]).append(',');
+        line.append(ring[row + 1] < 0 ? "none" : DiseaseTypes.classOf(ring[row + 1]).getName()).append(',');
+        line.append(ring[row + 2] < 0 ? "clear" : WeatherTypes.classOf(ring[row + 2]).getName());
+        for (int i = row + HEADER_INTS - 1; i < row + rowInts; i++) {
+            line.append(',').append(ring[i]);
+        }
+        line.append('\n');
+    }
+
+    /**
+     * Write the text in the batch to the file and empty the batch.
+     */
+    private void flush(ByteBuffer batch) throws IOException {
+        batch.flip();
+        write(batch);
+        batch.clear();
+    }
+
+    /**
+     * Write all of a buffer to the file.
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
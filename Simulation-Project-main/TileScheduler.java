@@ -0,0 +1,200 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a step of the simulation on several threads.
+ * The field is cut into square tiles, and the tiles are coloured like a
+ * checkerboard with four colours, so that two tiles of the same colour are
+ * always at least a whole tile apart. A species only ever looks at or
+ * changes the cells next to its own, so while the tiles of one colour are
+ * run at the same time their moves, births and kills can never touch the
+ * same cell. The four colours are run one after another as phases, each
+ * phase spread over a ForkJoinPool.
+ * Each species acts once per step, in the phase of the tile it was in when
+ * the step began, even if it has moved into another tile by then.
+ * Which species act at the same time does not depend on the number of
+ * threads, so with random streams in use the result of a step does not
+ * either.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class TileScheduler {
+    // The smallest tile side for which tiles of one colour cannot share cells
+    public static final int MIN_TILE_SIZE = 2;
+    // The number of checkerboard colours, and so of phases in a step
+    private static final int PHASES = 4;
+    // The most tiles a single task runs before splitting its work
+    private static final int TILES_PER_TASK = 4;
+
+    // The field the species live in
+    private final Field field;
+    // The length of the side of each tile
+    private final int tileSize;
+    // The number of tiles across the width of the field
+    private final int tileCols;
+    // The pool the tiles of each phase are run on
+    private final ForkJoinPool pool;
+    // The species in each tile at the start of the step
+    private final List<List<Species>> residents;
+    // The species born in each tile during the step
+    private final List<List<Species>> newborns;
+    // The tile indices of each colour
+    private final int[][] phaseTiles;
+
+    /**
+     * Create a scheduler for the given field.
+     *
+     * @param field    the field the species live in
+     * @param tileSize the length of the side of each tile, at least MIN_TILE_SIZE
+     * @param pool     the pool to run the tiles on
+     */
+    public TileScheduler(Field field, int tileSize, ForkJoinPool pool) {
+        if (tileSize < MIN_TILE_SIZE) {
+            throw new IllegalArgumentException("Tiles must be at least " + MIN_TILE_SIZE + " cells across");
+        }
+        this.field = field;
+        this.tileSize = tileSize;
+        this.pool = pool;
+        int tileRows = (field.getDepth() + tileSize - 1) / tileSize;
+        tileCols = (field.getWidth() + tileSize - 1) / tileSize;
+
+        residents = new ArrayList<>();
+        newborns = new ArrayList<>();
+        for (int tile = 0; tile < tileRows * tileCols; tile++) {
+            residents.add(new ArrayList<>());
+            newborns.add(new ArrayList<>());
+        }
+
+        int[] counts = new int[PHASES];
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                counts[colour(tileRow, tileCol)]++;
+            }
+        }
+        phaseTiles = new int[PHASES][];
+        for (int phase = 0; phase < PHASES; phase++) {
+            phaseTiles[phase] = new int[counts[phase]];
+            counts[phase] = 0;
+        }
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++) {
+                int phase = colour(tileRow, tileCol);
+                phaseTiles[phase][counts[phase]++] = tileRow * tileCols + tileCol;
+            }
+        }
+    }
+
+    /**
+     * Let every species act once. Species that die are removed from the
+     * list and the newly born are added to the end of it, as in a step run
+     * on a single thread.
+     *
+     * @param species            the species in the field, updated in place
+     * @param step               the step being run
+     * @param isDay              true if it is daytime
+     * @param diseaseBeingSpread the disease currently active, or null
+     * @param weatherOccurring   the weather currently occurring, or null
+     */
+    public void step(List<Species> species, int step, boolean isDay, Disease diseaseBeingSpread, Weather weatherOccurring) {
+        for (Species specie : species) {
+            residents.get(tileOf(specie.getCell())).add(specie);
+        }
+
+        Randomizer randomizer = Randomizer.active();
+        for (int[] tiles : phaseTiles) {
+            pool.invoke(new PhaseTask(randomizer, tiles, 0, tiles.length, step, isDay, diseaseBeingSpread,
+                    weatherOccurring));
+        }
+
+        species.clear();
+        for (List<Species> tile : residents) {
+            for (Species specie : tile) {
+                if (specie.isAlive()) {
+                    species.add(specie);
+                }
+            }
+            tile.clear();
+        }
+        for (List<Species> tile : newborns) {
+            species.addAll(tile);
+            tile.clear();
+        }
+    }
+
+    /**
+     * @return the length of the side of each tile
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the index of the tile holding the given cell
+     */
+    private int tileOf(long cell) {
+        return (field.getRow(cell) / tileSize) * tileCols + field.getCol(cell) / tileSize;
+    }
+
+    /**
+     * @return the checkerboard colour of a tile, from 0 to PHASES - 1
+     */
+    private static int colour(int tileRow, int tileCol) {
+        return (tileRow % 2) * 2 + tileCol % 2;
+    }
+
+    /**
+     * Runs the species of a range of tiles of one colour, splitting the
+     * range in half until it is small enough to run directly. Tasks are
+     * never serialized.
+     */
+    @SuppressWarnings("serial")
+    private class PhaseTask extends RecursiveAction {
+        // The randomizer of the simulation, made active on the pool's threads
+        private final Randomizer randomizer;
+        private final int[] tiles;
+        private final int from;
+        private final int to;
+        private final int step;
+        private final boolean isDay;
+        private final Disease diseaseBeingSpread;
+        private final Weather weatherOccurring;
+
+        PhaseTask(Randomizer randomizer, int[] tiles, int from, int to, int step, boolean isDay,
+                  Disease diseaseBeingSpread, Weather weatherOccurring) {
+            this.randomizer = randomizer;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.step = step;
+            this.isDay = isDay;
+            this.diseaseBeingSpread = diseaseBeingSpread;
+            this.weatherOccurring = weatherOccurring;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TILES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PhaseTask(randomizer, tiles, from, middle, step, isDay, diseaseBeingSpread,
+                                weatherOccurring),
+                        new PhaseTask(randomizer, tiles, middle, to, step, isDay, diseaseBeingSpread,
+                                weatherOccurring));
+                return;
+            }
+            Randomizer previous = Randomizer.enter(randomizer);
+            try {
+                for (int i = from; i < to; i++) {
+                    List<Species> born = newborns.get(tiles[i]);
+                    for (Species specie : residents.get(tiles[i])) {
+                        Randomizer.select(step, specie.getRandomKey());
+                        specie.act(born, isDay, diseaseBeingSpread, weatherOccurring);
+                    }
+                }
+            } finally {
+                Randomizer.exit(previous);
+            }
+        }
+    }
+}
@@ -1,4 +1,4 @@
-import java.util.*;
+import java.nio.ByteBuffer;
 
 /**
  * This class represents weather and holds all things all weathers need.
@@ -8,13 +8,16 @@ import java.util.*;
  * This is kept under the limit of each subclass's MaxWeatherLength.
  * Each weather will have its own name to be passed to the simulator view.
  * They also have thier own probability of occuring.
+ * Each type of weather has a small integer id from WeatherTypes, and the
+ * species it affects are listed in FoodWeb.
  *
  * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
  */
 public abstract class Weather {
-    private static final Random rand = Randomizer.getRandom();
-    // Each weather subclass holds an ArrayList of classes it affects
-    protected List<Class<?>> speciesAffected;
+    // The number of bytes a weather takes in a checkpoint
+    public static final int CHECKPOINT_BYTES = 9;
+    // The id of this type of weather
+    private final int id;
     protected String name;
     // last step number on which the weather was active
     private int lastWeatherStep;
@@ -29,7 +32,7 @@ public abstract class Weather {
      */
     public Weather() {
         // initialise instance variables
-        speciesAffected = new ArrayList<>();
+        id = WeatherTypes.idOf(getClass());
         lastWeatherStep = 0;
         duration = 0;
         isActive = false;
@@ -57,10 +60,18 @@ public abstract class Weather {
     public abstract double getWeatherOccurringProbability();
 
     /**
-     * @param the species to add to the list of species that the weather affects.
+     * @return the id of this type of weather
      */
-    public void addSpeciesAffected(Class<?> specie) {
-        speciesAffected.add(specie);
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @param typeId the type id of the species being checked
+     * @return true if the weather affects that type of species
+     */
+    public boolean affects(int typeId) {
+        return FoodWeb.isAffected(id, typeId);
     }
 
     /**
@@ -118,8 +129,28 @@ public abstract class Weather {
      */
     public void activate() {
         isActive = true;
-        duration = rand.nextInt(getMaxWeatherLength()) + 5;
-        System.out.println(duration);
+        duration = Randomizer.current().nextInt(getMaxWeatherLength()) + 5;
+    }
+
+    /**
+     * Write when the weather last occurred, whether it is occurring and
+     * how long it has left to a checkpoint.
+     * @param buffer the buffer to write CHECKPOINT_BYTES bytes to
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(lastWeatherStep);
+        buffer.put((byte) (isActive ? 1 : 0));
+        buffer.putInt(duration);
+    }
+
+    /**
+     * Read the state written by writeTo back into this weather.
+     * @param buffer the buffer to read CHECKPOINT_BYTES bytes from
+     */
+    public void readFrom(ByteBuffer buffer) {
+        lastWeatherStep = buffer.getInt();
+        isActive = buffer.get() != 0;
+        duration = buffer.getInt();
     }
 
     /**
@@ -0,0 +1,41 @@
+import java.util.List;
+
+/**
+ * Gives each type of weather in the simulation a small, dense integer id,
+ * so per-weather data can be kept in arrays indexed by id.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+public class WeatherTypes {
+    // Every concrete weather, in id order
+    private static final List<Class<? extends Weather>> TYPES = List.of(Rain.class);
+
+    /**
+     * @return the number of weather types
+     */
+    public static int count() {
+        return TYPES.size();
+    }
+
+    /**
+     * Return the id of a class of weather.
+     *
+     * @param weather the class of the weather
+     * @return the id, between 0 and count() - 1
+     */
+    public static int idOf(Class<?> weather) {
+        int id = TYPES.indexOf(weather);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unknown weather: " + weather.getName());
+        }
+        return id;
+    }
+
+    /**
+     * @param id a weather id
+     * @return the class of weather with that id
+     */
+    public static Class<? extends Weather> classOf(int id) {
+        return TYPES.get(id);
+    }
+}
@@ -30,16 +30,14 @@ public class Zombie extends Predator {
 
 
     /**
-     * Create a Zombie and add the preys they hunt to the hashmap
+     * Create a Zombie. The prey they hunt are listed in FoodWeb
      *
      * @param randomAge If true, the zombie will have random age and energy level.
      * @param field     The field currently occupied.
-     * @param location  The location within the field.
+     * @param cell      The cell within the field.
      */
-    public Zombie(boolean randomAge, Field field, Location location) {
-        super(randomAge, field, location);
-
-        addPrey(Human.class);
+    public Zombie(boolean randomAge, Field field, long cell) {
+        super(randomAge, field, cell);
     }
 
     /**
@@ -107,10 +105,14 @@ public class Zombie extends Predator {
      *
      * @param newZombies The list which contains new species
      * @param field      The grid in which the zombie will be born
-     * @param loc        The location of the new zombie's birth
+     * @param cell       The cell of the new zombie's birth
      */
-    public void addBaby(List<Species> newZombies, Field field, Location loc) {
-        Zombie young = new Zombie(false, field, loc);
+    public void addBaby(List<Species> newZombies, Field field, long cell) {
+        // Bring back a dead zombie if the field has one to reuse.
+        Species young = field.getPool().reuse(getTypeId(), field, cell);
+        if (young == null) {
+            young = new Zombie(false, field, cell);
+        }
         //Adding new dragons, which is referencing newAnimals in Simulator
         newZombies.add(young);
     }
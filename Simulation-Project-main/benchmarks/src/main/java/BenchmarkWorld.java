@@ -0,0 +1,77 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds populated fields for the benchmarks.
+ * Each cell is occupied with the given probability, and the species placed
+ * there is chosen in proportion to the creation probabilities used by
+ * SimulationEngine, so a field looks like the start of a normal run at any
+ * density.
+ */
+public class BenchmarkWorld {
+    // Relative weights of each species, from the engine's creation probabilities
+    private static final double DRAGON_WEIGHT = 0.02;
+    private static final double ZOMBIE_WEIGHT = 0.04;
+    private static final double HELLHOUND_WEIGHT = 0.06;
+    private static final double HUMAN_WEIGHT = 0.08;
+    private static final double GRASS_WEIGHT = 0.09;
+    private static final double TOTAL_WEIGHT = DRAGON_WEIGHT + ZOMBIE_WEIGHT
+            + HELLHOUND_WEIGHT + HUMAN_WEIGHT + GRASS_WEIGHT;
+    // The number of cells benchmarks cycle through
+    private static final int PROBES = 1024;
+
+    private static final Random RAND = Randomizer.getRandom();
+
+    private BenchmarkWorld() {
+    }
+
+    /**
+     * Clear the field and fill it to the given density.
+     *
+     * @param field   The field to populate.
+     * @param density The fraction of cells to occupy.
+     * @return The species placed in the field.
+     */
+    public static List<Species> populate(Field field, double density) {
+        field.clear();
+        List<Species> species = new ArrayList<>();
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                if (RAND.nextDouble() < density) {
+                    species.add(create(field, field.getCell(row, col)));
+                }
+            }
+        }
+        return species;
+    }
+
+    /**
+     * @return Random locations in the field for benchmarks to cycle through.
+     */
+    public static Location[] probes(Field field) {
+        Location[] probes = new Location[PROBES];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new Location(RAND.nextInt(field.getDepth()), RAND.nextInt(field.getWidth()));
+        }
+        return probes;
+    }
+
+    /**
+     * Create a species of a random type in the given cell.
+     */
+    private static Species create(Field field, long cell) {
+        double pick = RAND.nextDouble() * TOTAL_WEIGHT;
+        if ((pick -= DRAGON_WEIGHT) < 0) {
+            return new Dragon(true, field, cell);
+        } else if ((pick -= ZOMBIE_WEIGHT) < 0) {
+            return new Zombie(true, field, cell);
+        } else if ((pick -= HELLHOUND_WEIGHT) < 0) {
+            return new HellHound(true, field, cell);
+        } else if ((pick -= HUMAN_WEIGHT) < 0) {
+            return new Human(true, field, cell);
+        } else {
+            return new Grass(true, field, cell);
+        }
+    }
+}
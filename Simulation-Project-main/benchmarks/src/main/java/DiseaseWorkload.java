@@ -0,0 +1,26 @@
+/**
+ * An outbreak of Ebola in a populated field.
+ */
+public class DiseaseWorkload implements benchmarks.DiseaseBenchmark.Workload {
+    private Field field;
+    private double density;
+    private Disease disease;
+
+    public void setUp(int size, double density) {
+        field = new Field(size, size);
+        this.density = density;
+        disease = new Ebola();
+    }
+
+    public void populate() {
+        BenchmarkWorld.populate(field, density);
+    }
+
+    public void activate() {
+        disease.activate(field);
+    }
+
+    public void deactivate() {
+        disease.deactivate(field);
+    }
+}
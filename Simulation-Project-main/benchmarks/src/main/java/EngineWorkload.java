@@ -0,0 +1,20 @@
+/**
+ * Full steps of a simulation, restarted every RUN_LENGTH steps.
+ */
+public class EngineWorkload implements benchmarks.EngineBenchmark.Workload {
+    // The number of steps run before the engine is reset
+    private static final int RUN_LENGTH = 100;
+
+    private SimulationEngine engine;
+
+    public void setUp(int size, double populationScale) {
+        engine = new SimulationEngine(size, size, populationScale);
+    }
+
+    public void simulateOneStep() {
+        if (engine.getStep() == RUN_LENGTH) {
+            engine.reset();
+        }
+        engine.simulateOneStep();
+    }
+}
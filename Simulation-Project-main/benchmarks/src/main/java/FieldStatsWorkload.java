@@ -0,0 +1,19 @@
+/**
+ * A census of a populated field.
+ */
+public class FieldStatsWorkload implements benchmarks.FieldStatsBenchmark.Workload {
+    private Field field;
+
+    public void setUp(int size, double density) {
+        field = new Field(size, size);
+        BenchmarkWorld.populate(field, density);
+    }
+
+    public boolean isViable() {
+        return field.getStats().isViable();
+    }
+
+    public String getPopulationDetails() {
+        return field.getStats().getPopulationDetails();
+    }
+}
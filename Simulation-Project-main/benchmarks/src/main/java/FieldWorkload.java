@@ -0,0 +1,52 @@
+/**
+ * Neighbourhood queries from random cells of a populated field.
+ */
+public class FieldWorkload implements benchmarks.FieldBenchmark.Workload {
+    private Field field;
+    private Location[] probes;
+    private int next;
+    // The types a dragon eats, as a mask of type ids
+    private int dragonPrey;
+
+    public void setUp(int size, double density) {
+        field = new Field(size, size);
+        BenchmarkWorld.populate(field, density);
+        probes = BenchmarkWorld.probes(field);
+        dragonPrey = FoodWeb.preyOf(SpeciesTypes.idOf(Dragon.class));
+    }
+
+    public Object adjacentLocations() {
+        return field.adjacentLocations(nextProbe(), 1);
+    }
+
+    public Object freeAdjacentLocations() {
+        return field.getFreeAdjacentLocations(nextProbe());
+    }
+
+    public int adjacentDirections() {
+        Location probe = nextProbe();
+        long cell = field.getCell(probe.getRow(), probe.getCol());
+        int occupied = 0;
+        for (byte direction : field.adjacentDirections(probe.getRow(), probe.getCol())) {
+            if (!field.isEmpty(field.adjacentCell(cell, direction))) {
+                occupied++;
+            }
+        }
+        return occupied;
+    }
+
+    public long freeAdjacentCell() {
+        Location probe = nextProbe();
+        return field.freeAdjacentCell(probe.getRow(), probe.getCol());
+    }
+
+    public boolean hasAdjacent() {
+        Location probe = nextProbe();
+        return field.hasAdjacent(dragonPrey, field.getCell(probe.getRow(), probe.getCol()));
+    }
+
+    private Location nextProbe() {
+        next = (next + 1) & (probes.length - 1);
+        return probes[next];
+    }
+}
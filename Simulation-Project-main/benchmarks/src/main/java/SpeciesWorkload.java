@@ -0,0 +1,44 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mate and food searches by species in a populated field.
+ * Dragons do the hunting, since nothing hunts them and so they stay alive
+ * for the whole run; each zombie or hell-hound they eat is replaced by a new
+ * zombie, keeping the density of prey steady.
+ */
+public class SpeciesWorkload implements benchmarks.SpeciesBenchmark.Workload {
+    private Field field;
+    private List<Species> species;
+    private List<Predator> hunters;
+    private int nextSpecies;
+    private int nextHunter;
+
+    public void setUp(int size, double density) {
+        field = new Field(size, size);
+        species = BenchmarkWorld.populate(field, density);
+        hunters = new ArrayList<>();
+        for (Species specie : species) {
+            if (specie instanceof Dragon) {
+                hunters.add((Predator) specie);
+            }
+        }
+        if (hunters.isEmpty()) {
+            hunters.add(new Dragon(true, field, 0));
+        }
+    }
+
+    public boolean hasMate() {
+        nextSpecies = (nextSpecies + 1) % species.size();
+        return species.get(nextSpecies).hasMate();
+    }
+
+    public Object findFood() {
+        nextHunter = (nextHunter + 1) % hunters.size();
+        long eaten = hunters.get(nextHunter).findFood();
+        if (eaten >= 0) {
+            new Zombie(true, field, eaten);
+        }
+        return eaten;
+    }
+}
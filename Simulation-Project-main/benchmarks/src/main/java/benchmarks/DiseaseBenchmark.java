@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The start and end of an outbreak: Disease.activate and
+ * Disease.deactivate on a populated field.
+ * Both change the field (infecting, weakening and killing species), so the
+ * field is populated again before every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiseaseBenchmark {
+
+    /**
+     * The disease operations being measured.
+     */
+    public interface Workload {
+        void setUp(int size, double density);
+
+        void populate();
+
+        void activate();
+
+        void deactivate();
+    }
+
+    /**
+     * A freshly populated field with no disease active.
+     */
+    @State(Scope.Thread)
+    public static class Healthy {
+        // The depth and width of the (square) field.
+        @Param({"64", "256", "1024"})
+        public int size;
+
+        // The fraction of cells that are occupied.
+        @Param({"0.1", "0.5"})
+        public double density;
+
+        Workload workload;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            workload = Workloads.create(Workload.class, "DiseaseWorkload");
+            workload.setUp(size, density);
+        }
+
+        @Setup(Level.Invocation)
+        public void populate() {
+            workload.populate();
+        }
+    }
+
+    /**
+     * A freshly populated field in which an outbreak has just started.
+     */
+    @State(Scope.Thread)
+    public static class Outbreak extends Healthy {
+        @Override
+        @Setup(Level.Invocation)
+        public void populate() {
+            workload.populate();
+            workload.activate();
+        }
+    }
+
+    @Benchmark
+    public void activate(Healthy state) {
+        state.workload.activate();
+    }
+
+    @Benchmark
+    public void deactivate(Outbreak state) {
+        state.workload.deactivate();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A full step of the simulation: SimulationEngine.simulateOneStep, which
+ * is what Simulator.simulateOneStep runs before painting the view.
+ * The engine is reset every RUN_LENGTH steps, so the measurement covers
+ * the busy early part of a run rather than a field that has died out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    /**
+     * The engine operations being measured.
+     */
+    public interface Workload {
+        void setUp(int size, double populationScale);
+
+        void simulateOneStep();
+    }
+
+    // The depth and width of the (square) field.
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    // The population density, relative to the normal starting population.
+    @Param({"0.5", "1.0", "2.0"})
+    public double populationScale;
+
+    private Workload workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "EngineWorkload");
+        workload.setUp(size, populationScale);
+    }
+
+    @Benchmark
+    public void simulateOneStep() {
+        workload.simulateOneStep();
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Neighbourhood queries on the field, from random cells of a populated
+ * field: the List-returning Field.adjacentLocations and
+ * Field.getFreeAdjacentLocations, and the allocation-free visit of the
+ * neighbours through Field.adjacentDirections and Field.freeAdjacentCell
+ * that species use as they act, and the bitplane check Field.hasAdjacent
+ * that a predator makes before it looks for food.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldBenchmark {
+
+    /**
+     * The field operations being measured.
+     */
+    public interface Workload {
+        void setUp(int size, double density);
+
+        Object adjacentLocations();
+
+        Object freeAdjacentLocations();
+
+        int adjacentDirections();
+
+        long freeAdjacentCell();
+
+        boolean hasAdjacent();
+    }
+
+    // The depth and width of the (square) field.
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    // The fraction of cells that are occupied.
+    @Param({"0.1", "0.5"})
+    public double density;
+
+    private Workload workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "FieldWorkload");
+        workload.setUp(size, density);
+    }
+
+    @Benchmark
+    public Object adjacentLocations() {
+        return workload.adjacentLocations();
+    }
+
+    @Benchmark
+    public Object getFreeAdjacentLocations() {
+        return workload.freeAdjacentLocations();
+    }
+
+    @Benchmark
+    public int adjacentDirections() {
+        return workload.adjacentDirections();
+    }
+
+    @Benchmark
+    public long freeAdjacentCell() {
+        return workload.freeAdjacentCell();
+    }
+
+    @Benchmark
+    public boolean hasAdjacent() {
+        return workload.hasAdjacent();
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The population census: the viability check made before every step, and
+ * the population details shown with it, read from the counts the field
+ * keeps as species enter and leave it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldStatsBenchmark {
+
+    /**
+     * The statistics operations being measured.
+     */
+    public interface Workload {
+        void setUp(int size, double density);
+
+        boolean isViable();
+
+        String getPopulationDetails();
+    }
+
+    // The depth and width of the (square) field.
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    // The fraction of cells that are occupied.
+    @Param({"0.1", "0.5"})
+    public double density;
+
+    private Workload workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "FieldStatsWorkload");
+        workload.setUp(size, density);
+    }
+
+    @Benchmark
+    public boolean isViable() {
+        return workload.isViable();
+    }
+
+    @Benchmark
+    public String getPopulationDetails() {
+        return workload.getPopulationDetails();
+    }
+}
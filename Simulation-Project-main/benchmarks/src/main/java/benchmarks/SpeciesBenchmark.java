@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Neighbour searches made by each species as it acts: Species.hasMate
+ * and Predator.findFood, for species spread over a populated field.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpeciesBenchmark {
+
+    /**
+     * The species operations being measured.
+     */
+    public interface Workload {
+        void setUp(int size, double density);
+
+        boolean hasMate();
+
+        Object findFood();
+    }
+
+    // The depth and width of the (square) field.
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    // The fraction of cells that are occupied.
+    @Param({"0.1", "0.5"})
+    public double density;
+
+    private Workload workload;
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "SpeciesWorkload");
+        workload.setUp(size, density);
+    }
+
+    @Benchmark
+    public boolean hasMate() {
+        return workload.hasMate();
+    }
+
+    @Benchmark
+    public Object findFood() {
+        return workload.findFood();
+    }
+}
@@ -0,0 +1,30 @@
+package benchmarks;
+
+/**
+ * Loads the workloads driven by the benchmarks.
+ * JMH only accepts benchmark classes that are in a package, while the
+ * simulation classes are in the default package and so cannot be imported
+ * from one. Each benchmark therefore declares a small Workload interface,
+ * implemented by a class in the default package that does the actual work,
+ * and loads that implementation by name.
+ */
+public final class Workloads {
+
+    private Workloads() {
+    }
+
+    /**
+     * Create the workload implemented by the named default-package class.
+     *
+     * @param type      The workload interface.
+     * @param className The name of the class implementing it.
+     * @return A new instance of the workload.
+     */
+    public static <T> T create(Class<T> type, String className) {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload " + className, e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of saving and loading checkpoints, and that a run resumed from a
+ * checkpoint carries on exactly as it would have.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class CheckpointTest {
+    // The size of the field the tests run on
+    private static final int DEPTH = 80;
+    private static final int WIDTH = 80;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aLoadedCheckpointSavesTheSameBytes() throws IOException {
+        SimulationEngine engine = run(new SimulationEngine(DEPTH, WIDTH), 12);
+        Path saved = directory.resolve("saved");
+        engine.saveCheckpoint(saved);
+
+        SimulationEngine loaded = new SimulationEngine(DEPTH, WIDTH);
+        loaded.loadCheckpoint(saved);
+        Path resaved = directory.resolve("resaved");
+        loaded.saveCheckpoint(resaved);
+
+        assertArrayEquals(Files.readAllBytes(saved), Files.readAllBytes(resaved));
+        assertEquals(engine.getStep(), loaded.getStep());
+        assertEquals(engine.getPopulationDetails(), loaded.getPopulationDetails());
+    }
+
+    @Test
+    void aResumedRunMatchesAStraightRun() throws IOException {
+        assertResumesExactly(() -> new SimulationEngine(DEPTH, WIDTH));
+    }
+
+    @Test
+    void aResumedRunWithRandomStreamsMatchesAStraightRun() throws IOException {
+        assertResumesExactly(() -> {
+            SimulationEngine engine = new SimulationEngine(DEPTH, WIDTH);
+            engine.useRandomStreams(99);
+            return engine;
+        });
+    }
+
+    @Test
+    void aCheckpointCutShortLeavesTheSimulationAsItWas() throws IOException {
+        Path saved = directory.resolve("saved");
+        run(new SimulationEngine(DEPTH, WIDTH), 5).saveCheckpoint(saved);
+        byte[] bytes = Files.readAllBytes(saved);
+        Path cut = directory.resolve("cut");
+        Files.write(cut, Arrays.copyOf(bytes, bytes.length - 7));
+
+        assertUnchangedByLoading(cut);
+    }
+
+    @Test
+    void aCheckpointWithAnUnknownTypeLeavesTheSimulationAsItWas() throws IOException {
+        Path saved = directory.resolve("saved");
+        run(new SimulationEngine(DEPTH, WIDTH), 5).saveCheckpoint(saved);
+        byte[] bytes = Files.readAllBytes(saved);
+        // Corrupt the type of the last species.
+        bytes[bytes.length - Species.CHECKPOINT_BYTES] = 99;
+        Path corrupt = directory.resolve("corrupt");
+        Files.write(corrupt, bytes);
+
+        assertUnchangedByLoading(corrupt);
+    }
+
+    @Test
+    void aCheckpointOfAnotherSizeIsRejected() throws IOException {
+        Path saved = directory.resolve("saved");
+        new SimulationEngine(DEPTH, WIDTH).saveCheckpoint(saved);
+        assertThrows(IOException.class, () -> new SimulationEngine(DEPTH, WIDTH + 1).loadCheckpoint(saved));
+    }
+
+    @Test
+    void speciesInAnEntityStoreCannotBeSaved() {
+        SimulationEngine engine = new SimulationEngine(DEPTH, WIDTH);
+        engine.useEntityStore();
+        assertThrows(IllegalStateException.class, () -> engine.saveCheckpoint(directory.resolve("store")));
+    }
+
+    @Test
+    void aCheckpointWithRandomStreamsCannotBeLoadedIntoAStore() throws IOException {
+        Path saved = directory.resolve("streams");
+        SimulationEngine streams = new SimulationEngine(DEPTH, WIDTH);
+        streams.useRandomStreams(99);
+        run(streams, 3).saveCheckpoint(saved);
+
+        SimulationEngine store = new SimulationEngine(DEPTH, WIDTH);
+        store.useEntityStore();
+        String population = store.getPopulationDetails();
+        assertThrows(IOException.class, () -> store.loadCheckpoint(saved));
+        assertEquals(population, store.getPopulationDetails());
+    }
+
+    /**
+     * Run one engine straight through and another in two halves with a
+     * checkpoint between, loaded into a new engine, and check that both
+     * end in the same state. The runs are made one after the other, as the
+     * engines share the randomizer.
+     */
+    private void assertResumesExactly(Supplier<SimulationEngine> newEngine) throws IOException {
+        SimulationEngine straight = run(newEngine.get(), 40);
+        Path straightEnd = directory.resolve("straight");
+        straight.saveCheckpoint(straightEnd);
+
+        Path half = directory.resolve("half");
+        run(newEngine.get(), 17).saveCheckpoint(half);
+        SimulationEngine second = new SimulationEngine(DEPTH, WIDTH);
+        second.loadCheckpoint(half);
+        run(second, 23);
+        Path resumedEnd = directory.resolve("resumed");
+        second.saveCheckpoint(resumedEnd);
+        assertEquals(straight.getPopulationDetails(), second.getPopulationDetails());
+        assertArrayEquals(Files.readAllBytes(straightEnd), Files.readAllBytes(resumedEnd));
+    }
+
+    /**
+     * Check that loading a bad checkpoint fails and leaves a simulation
+     * as it was.
+     */
+    private void assertUnchangedByLoading(Path bad) throws IOException {
+        SimulationEngine engine = run(new SimulationEngine(DEPTH, WIDTH), 3);
+        Path before = directory.resolve("before");
+        engine.saveCheckpoint(before);
+
+        assertThrows(IOException.class, () -> engine.loadCheckpoint(bad));
+        Path after = directory.resolve("after");
+        engine.saveCheckpoint(after);
+        assertArrayEquals(Files.readAllBytes(before), Files.readAllBytes(after));
+    }
+
+    /**
+     * Run an engine for the given number of steps.
+     *
+     * @return the engine
+     */
+    private static SimulationEngine run(SimulationEngine engine, int steps) {
+        for (int step = 0; step < steps; step++) {
+            engine.simulateOneStep();
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that an EntityStore holds the same population as the field it is
+ * loaded from and runs the same behaviour as the Species objects.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class EntityStoreTest {
+    // The most steps a lone animal is run for before giving up on it dying
+    private static final int MAX_STEPS = 1000;
+
+    @Test
+    void aStoreHoldsThePopulationOfItsField() {
+        SimulationEngine engine = new SimulationEngine(40, 40);
+        Field field = engine.getField();
+        int[] counts = new int[SpeciesTypes.count()];
+        int total = 0;
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                Species specie = (Species) field.getObjectAt(row, col);
+                if (specie != null) {
+                    counts[specie.getTypeId()]++;
+                    total++;
+                }
+            }
+        }
+
+        EntityStore store = EntityStore.load(field, false);
+        assertEquals(total, store.size());
+        for (int typeId = 0; typeId < counts.length; typeId++) {
+            assertEquals(counts[typeId], store.getCount(typeId));
+        }
+    }
+
+    @Test
+    void aLoneAnimalDiesOnTheSameStepAsItsSpeciesObject() {
+        assertDiesOnTheSameStep((field, cell) -> new Dragon(false, field, cell));
+        assertDiesOnTheSameStep((field, cell) -> new Human(false, field, cell));
+        assertDiesOnTheSameStep((field, cell) -> new Zombie(false, field, cell));
+        assertDiesOnTheSameStep((field, cell) -> new HellHound(false, field, cell));
+    }
+
+    @Test
+    void onATorusAPredatorFindsPreyAcrossTheEdge() {
+        assertEquals(0, zombiesLeftNextToADragonAcrossTheCorner(true));
+        assertEquals(1, zombiesLeftNextToADragonAcrossTheCorner(false));
+    }
+
+    @Test
+    void aToroidalStoreSmallerThan3By3IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new EntityStore(2, 10, true));
+        assertThrows(IllegalArgumentException.class, () -> new EntityStore(10, 2, true));
+        assertEquals(0, new EntityStore(2, 2).size());
+    }
+
+    @Test
+    void aStoreCannotBeUsedWithRandomStreams() {
+        SimulationEngine streams = new SimulationEngine(20, 20);
+        streams.useRandomStreams(42);
+        assertThrows(IllegalStateException.class, streams::useEntityStore);
+
+        SimulationEngine store = new SimulationEngine(20, 20);
+        store.useEntityStore();
+        assertThrows(IllegalStateException.class, () -> store.useRandomStreams(42));
+    }
+
+    /**
+     * Put a dragon in one corner of a field and a zombie in the opposite
+     * corner, and run a store of the field for a step.
+     *
+     * @return the number of zombies left
+     */
+    private static int zombiesLeftNextToADragonAcrossTheCorner(boolean toroidal) {
+        Field field = new Field(10, 10);
+        new Dragon(false, field, field.getCell(0, 0));
+        new Zombie(false, field, field.getCell(9, 9));
+        EntityStore store = EntityStore.load(field, toroidal);
+        store.step(true, null, null);
+        return store.getCount(SpeciesTypes.idOf(Zombie.class));
+    }
+
+    /**
+     * Put a newborn alone in a field, and check that run as a Species and
+     * run in a store it dies of hunger or old age on the same step.
+     */
+    private static void assertDiesOnTheSameStep(BiFunction<Field, Long, Species> newborn) {
+        Field field = new Field(20, 20);
+        Species specie = newborn.apply(field, field.getCell(10, 10));
+        String type = specie.getClass().getName();
+        EntityStore store = EntityStore.load(field, false);
+
+        List<Species> newborns = new ArrayList<>();
+        int objectSteps = 0;
+        while (specie.isAlive() && objectSteps < MAX_STEPS) {
+            objectSteps++;
+            field.setStep(objectSteps);
+            specie.act(newborns, DayCycle.isDay(objectSteps), null, null);
+        }
+        int storeSteps = 0;
+        while (store.size() > 0 && storeSteps < MAX_STEPS) {
+            storeSteps++;
+            store.step(DayCycle.isDay(storeSteps), null, null);
+        }
+
+        assertTrue(newborns.isEmpty());
+        assertTrue(objectSteps < MAX_STEPS, type + " never died");
+        assertEquals(objectSteps, storeSteps, type);
+    }
+}
@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of FieldSnapshot, and of drawing snapshots when some are never
+ * drawn, as the view does when it falls behind.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class FieldSnapshotTest {
+
+    @Test
+    void afterTakesTheNewerCodeOfACellInBoth() {
+        Field field = new Field(10, 10);
+        field.takeChangedCells();
+        new Dragon(false, field, 3);
+        new Dragon(false, field, 7);
+        FieldSnapshot older = snapshot(field);
+
+        field.clear(3);
+        new Grass(false, field, 5);
+        FieldSnapshot newer = snapshot(field);
+
+        FieldSnapshot merged = newer.after(older);
+        assertEquals(3, merged.getChangedCount());
+        assertEquals(3, merged.getChangedCell(0));
+        assertEquals(FieldSnapshot.EMPTY, merged.getChangedCode(0));
+        assertEquals(5, merged.getChangedCell(1));
+        assertEquals(SpeciesTypes.idOf(Grass.class), merged.getChangedCode(1));
+        assertEquals(7, merged.getChangedCell(2));
+        assertEquals(SpeciesTypes.idOf(Dragon.class), merged.getChangedCode(2));
+    }
+
+    @Test
+    void afterAFullSnapshotIsFull() {
+        Field field = new Field(10, 10);
+        FieldSnapshot full = new FieldSnapshot(0, true, "none", "clear", "", field, field.takeChangedCells());
+        new Dragon(false, field, 42);
+        FieldSnapshot merged = snapshot(field).after(full);
+
+        assertTrue(merged.isFull());
+        assertEquals(100, merged.getChangedCount());
+        assertEquals(SpeciesTypes.idOf(Dragon.class), merged.getChangedCode(42));
+        assertEquals(FieldSnapshot.EMPTY, merged.getChangedCode(41));
+        assertSame(merged, merged.after(full));
+    }
+
+    @Test
+    void replayingWithDroppedFramesShowsTheField() {
+        SimulationEngine engine = new SimulationEngine(60, 60);
+        Random drop = new Random(7);
+        byte[] shown = new byte[60 * 60];
+        FieldSnapshot pending = null;
+        for (int step = 0; step < 40 && engine.isViable(); step++) {
+            if (step > 0) {
+                engine.simulateOneStep();
+            }
+            pending = engine.snapshot().after(pending);
+            if (drop.nextInt(3) != 0) {
+                draw(pending, shown);
+                pending = null;
+            }
+        }
+        if (pending != null) {
+            draw(pending, shown);
+        }
+        assertArrayEquals(codesOf(engine.getField()), shown);
+    }
+
+    /**
+     * @return a snapshot of the cells changed since the last one
+     */
+    private static FieldSnapshot snapshot(Field field) {
+        return new FieldSnapshot(0, true, "none", "clear", "", field, field.takeChangedCells());
+    }
+
+    /**
+     * Copy the codes of the cells held by a snapshot, as the view does.
+     */
+    private static void draw(FieldSnapshot snapshot, byte[] shown) {
+        for (int i = 0; i < snapshot.getChangedCount(); i++) {
+            shown[(int) snapshot.getChangedCell(i)] = snapshot.getChangedCode(i);
+        }
+    }
+
+    /**
+     * @return the code of every cell of the field, worked out directly
+     */
+    private static byte[] codesOf(Field field) {
+        byte[] codes = new byte[(int) field.getCellCount()];
+        Arrays.fill(codes, FieldSnapshot.EMPTY);
+        for (long cell = field.nextOccupiedCell(0); cell >= 0; cell = field.nextOccupiedCell(cell + 1)) {
+            Species specie = field.getSpeciesAt(cell);
+            codes[(int) cell] = specie.isInfected() ? FieldSnapshot.INFECTED : (byte) specie.getTypeId();
+        }
+        return codes;
+    }
+}
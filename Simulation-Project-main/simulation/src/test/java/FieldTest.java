@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the cells, chunks and bitplanes of a Field.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class FieldTest {
+
+    @Test
+    void takeChangedCellsIsNullUntilTakenAfterAClear() {
+        Field field = new Field(10, 10);
+        assertNull(field.takeChangedCells());
+        assertArrayEquals(new long[0], field.takeChangedCells());
+
+        new Dragon(false, field, 5);
+        field.clear();
+        assertNull(field.takeChangedCells());
+    }
+
+    @Test
+    void takeChangedCellsListsPlacedClearedAndMarkedCellsInOrder() {
+        Field field = new Field(100, 100);
+        field.takeChangedCells();
+        Dragon dragon = new Dragon(false, field, 9000);
+        new Dragon(false, field, 12);
+        assertArrayEquals(new long[] {12, 9000}, field.takeChangedCells());
+
+        field.markChanged(12);
+        dragon.setCell(9001);
+        assertArrayEquals(new long[] {12, 9000, 9001}, field.takeChangedCells());
+        assertArrayEquals(new long[0], field.takeChangedCells());
+    }
+
+    @Test
+    void anEmptyChunkIsKeptUntilItsChangesAreTaken() {
+        Field field = new Field(100, 100);
+        field.takeChangedCells();
+        Dragon dragon = new Dragon(false, field, 5000);
+        field.takeChangedCells();
+
+        field.clear(5000);
+        field.release(dragon);
+        field.releaseEmptyChunks();
+        assertArrayEquals(new long[] {5000}, field.takeChangedCells());
+        field.releaseEmptyChunks();
+        assertEquals(-1, field.nextOccupiedCell(0));
+    }
+
+    @Test
+    void nextOccupiedCellSkipsEmptyChunks() {
+        Field field = new Field(1000, 1000);
+        new Dragon(false, field, 3);
+        new Dragon(false, field, 654321);
+        assertEquals(3, field.nextOccupiedCell(0));
+        assertEquals(654321, field.nextOccupiedCell(4));
+        assertEquals(-1, field.nextOccupiedCell(654322));
+    }
+
+    @Test
+    void neighboursAreFoundAcrossChunksOfAFieldOfMoreThan2To31Cells() {
+        Field field = new Field(60000, 60000);
+        int row = 50000;
+        int col = 4095;
+        long cell = field.getCell(row, col);
+        assertTrue(cell > Integer.MAX_VALUE);
+        assertEquals(row, field.getRow(cell));
+        assertEquals(col, field.getCol(cell));
+
+        Dragon dragon = new Dragon(false, field, field.getCell(row + 1, col + 1));
+        int mask = 1 << dragon.getTypeId();
+        assertSame(dragon, field.getSpeciesAt(row + 1, col + 1));
+        assertTrue(field.hasAdjacent(mask, cell));
+        assertFalse(field.hasAdjacent(mask, field.getCell(row - 1, col)));
+        assertFalse(field.hasAdjacent(1 << SpeciesTypes.idOf(Human.class), cell));
+    }
+}
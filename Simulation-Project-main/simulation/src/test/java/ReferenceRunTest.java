@@ -0,0 +1,81 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the shortcuts the engine takes leave its runs unchanged. Each
+ * run is compared with the population every few steps, and a hash of the
+ * field at the end, of the same run made before the shortcut was added.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class ReferenceRunTest {
+
+    @Test
+    void leavingSleepersOutOfNightStepsChangesNothing() {
+        assertRun(new SimulationEngine(80, 80, 1.0), 60, 20, new String[] {
+            "Grass: 301 Human: 98 Dragon: 115 Zombie: 8 HellHound: 129 ",
+            "Grass: 127 Human: 54 Dragon: 114 Zombie: 1 HellHound: 20 ",
+            "Grass: 32 Human: 24 Dragon: 107 Zombie: 0 HellHound: 1 ",
+        }, 2570898965715698856L);
+
+        SimulationEngine streams = new SimulationEngine(80, 80, 1.0);
+        streams.useRandomStreams(42);
+        assertRun(streams, 60, 20, new String[] {
+            "Grass: 257 Human: 85 Dragon: 100 Zombie: 7 HellHound: 163 ",
+            "Grass: 147 Human: 48 Dragon: 93 Zombie: 0 HellHound: 41 ",
+            "Grass: 36 Human: 23 Dragon: 84 Zombie: 0 HellHound: 1 ",
+        }, 623410161225344075L);
+    }
+
+    @Test
+    void agesWorkedOutFromBirthStepsChangeNothing() {
+        assertRun(new SimulationEngine(100, 100), 150, 50, new String[] {
+            "Grass: 98 Human: 38 Dragon: 164 Zombie: 1 HellHound: 5 ",
+            "Grass: 0 Human: 0 Dragon: 113 Zombie: 0 HellHound: 0 ",
+            "Grass: 0 Human: 0 Dragon: 54 Zombie: 0 HellHound: 0 ",
+        }, 5837988176736904864L);
+    }
+
+    @Test
+    void compactingTheSpeciesListInOnePassChangesNothing() {
+        assertRun(new SimulationEngine(80, 80, 2.0), 40, 20, new String[] {
+            "Grass: 504 Human: 114 Dragon: 251 Zombie: 2 HellHound: 136 ",
+            "Grass: 246 Human: 65 Dragon: 248 Zombie: 0 HellHound: 9 ",
+        }, 4016639324633217769L);
+    }
+
+    @Test
+    void reusingDeadSpeciesAsNewbornsChangesNothing() {
+        SimulationEngine engine = new SimulationEngine(100, 100);
+        engine.useRandomStreams(42);
+        assertRun(engine, 100, 50, new String[] {
+            "Grass: 102 Human: 43 Dragon: 147 Zombie: 0 HellHound: 14 ",
+            "Grass: 0 Human: 0 Dragon: 110 Zombie: 0 HellHound: 0 ",
+        }, -8972154485002417954L);
+    }
+
+    /**
+     * Run an engine and check its population every few steps and its
+     * field at the end.
+     *
+     * @param engine      the engine to run
+     * @param steps       the number of steps to run
+     * @param every       the number of steps between populations
+     * @param populations the population details expected every few steps
+     * @param hash        the hash of the field expected at the end
+     */
+    private static void assertRun(SimulationEngine engine, int steps, int every,
+                                  String[] populations, long hash) {
+        String[] seen = new String[steps / every];
+        for (int step = 1; step <= steps; step++) {
+            engine.simulateOneStep();
+            if (step % every == 0) {
+                seen[step / every - 1] = engine.getPopulationDetails();
+            }
+        }
+        assertArrayEquals(populations, seen);
+        assertEquals(hash, TileSchedulerTest.fieldHash(engine.getField()));
+    }
+}
@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of Region.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class RegionTest {
+
+    @Test
+    void aBlockIsClippedToTheGrid() {
+        Region region = new Region(1, 8, 3, 10, 10);
+        assertEquals(0, region.getTop());
+        assertEquals(4, region.getBottom());
+        assertEquals(5, region.getLeft());
+        assertEquals(9, region.getRight());
+        assertEquals(5 * 5 - 1, region.size());
+        assertTrue(region.isCentre(1, 8));
+        assertFalse(region.isCentre(8, 1));
+    }
+
+    @Test
+    void randomBlocksLieWithinTheGrid() {
+        Random rand = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            Region region = Region.randomBlock(150, 80, rand);
+            assertTrue(region.size() > 0);
+            assertTrue(region.size() <= 150 * 80 - 1);
+            assertTrue(region.getTop() >= 0 && region.getBottom() < 150);
+            assertTrue(region.getLeft() >= 0 && region.getRight() < 80);
+        }
+    }
+
+    @Test
+    void theSizeOfABlockOfALargeGridDoesNotOverflow() {
+        Random rand = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            Region region = Region.randomBlock(100000, 100000, rand);
+            long rows = region.getBottom() - region.getTop() + 1;
+            long cols = region.getRight() - region.getLeft() + 1;
+            assertEquals(rows * cols - 1, region.size());
+            assertTrue(region.size() >= 100000L * 100000 / 100);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the streams of a StreamRandom depend only on their seed,
+ * step, key and how much has been drawn from them.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class StreamRandomTest {
+
+    @Test
+    void theSameStreamGivesTheSameNumbers() {
+        StreamRandom first = new StreamRandom(11);
+        StreamRandom second = new StreamRandom(11);
+        second.select(9, 9).nextInt();
+        assertArrayEquals(draw(first.select(4, 17)), draw(second.select(4, 17)));
+    }
+
+    @Test
+    void selectingAStreamAgainStartsItAgain() {
+        StreamRandom random = new StreamRandom(11);
+        long[] numbers = draw(random.select(4, 17));
+        assertArrayEquals(numbers, draw(random.select(4, 17)));
+    }
+
+    @Test
+    void otherSeedsStepsAndKeysGiveOtherNumbers() {
+        long[] numbers = draw(new StreamRandom(11).select(4, 17));
+        assertNotEquals(numbers[0], draw(new StreamRandom(12).select(4, 17))[0]);
+        assertNotEquals(numbers[0], draw(new StreamRandom(11).select(5, 17))[0]);
+        assertNotEquals(numbers[0], draw(new StreamRandom(11).select(4, 18))[0]);
+    }
+
+    @Test
+    void derivingAKeyDrawsNothing() {
+        StreamRandom random = new StreamRandom(11).select(4, 17);
+        long key = random.deriveKey(100);
+        assertEquals(key, new StreamRandom(11).select(4, 17).deriveKey(100));
+        assertNotEquals(key, random.deriveKey(101));
+        assertArrayEquals(draw(new StreamRandom(11).select(4, 17)), draw(random));
+    }
+
+    /**
+     * @return the next few numbers of the selected stream
+     */
+    private static long[] draw(StreamRandom random) {
+        long[] numbers = new long[8];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = random.nextLong();
+        }
+        return numbers;
+    }
+}
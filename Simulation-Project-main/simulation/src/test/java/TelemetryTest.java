@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of the CSV file written by Telemetry.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class TelemetryTest {
+    // The number of columns of a row before the per-type counts
+    private static final int HEADER_COLUMNS = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eachStepIsRecordedWithTheCountsItEndedOn() throws IOException {
+        Path file = directory.resolve("telemetry.csv");
+        SimulationEngine engine = new SimulationEngine(60, 60);
+        int[] before = counts(engine.getField().getStats());
+        try (Telemetry telemetry = new Telemetry(file)) {
+            engine.useTelemetry(telemetry);
+            for (int step = 0; step < 30; step++) {
+                engine.simulateOneStep();
+            }
+            engine.useTelemetry(null);
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        int types = SpeciesTypes.count();
+        String[] header = lines.get(0).split(",");
+        assertEquals(HEADER_COLUMNS + 3 * types, header.length);
+        assertEquals("step", header[0]);
+        assertEquals(SpeciesTypes.classOf(0).getName(), header[HEADER_COLUMNS]);
+        assertEquals(31, lines.size());
+
+        int[] counts = before;
+        for (int row = 1; row < lines.size(); row++) {
+            String[] columns = lines.get(row).split(",");
+            assertEquals(String.valueOf(row), columns[0]);
+            for (int typeId = 0; typeId < types; typeId++) {
+                int count = Integer.parseInt(columns[HEADER_COLUMNS + typeId]);
+                int births = Integer.parseInt(columns[HEADER_COLUMNS + types + typeId]);
+                int deaths = Integer.parseInt(columns[HEADER_COLUMNS + 2 * types + typeId]);
+                assertEquals(counts[typeId] + births - deaths, count, lines.get(row));
+                counts[typeId] = count;
+            }
+        }
+        assertArrayEquals(counts(engine.getField().getStats()), counts);
+        String[] last = lines.get(lines.size() - 1).split(",");
+        assertEquals(String.valueOf(engine.getInfectedCount()), last[3]);
+    }
+
+    @Test
+    void rowsAreNotLostWhenTheWriterFallsBehind() throws IOException {
+        Path file = directory.resolve("telemetry.csv");
+        FieldStats stats = new FieldStats();
+        int rows = 20000;
+        try (Telemetry telemetry = new Telemetry(file)) {
+            for (int step = 1; step <= rows; step++) {
+                telemetry.record(step, null, null, 0, stats);
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(rows + 1, lines.size());
+        for (int row = 1; row < lines.size(); row++) {
+            assertTrue(lines.get(row).startsWith(row + ","), lines.get(row));
+        }
+    }
+
+    @Test
+    void theInfectedCountIsTheNumberOfInfectedSpecies() {
+        SimulationEngine engine = new SimulationEngine(60, 60);
+        int mostInfected = 0;
+        for (int step = 0; step < 200; step++) {
+            engine.simulateOneStep();
+            Field field = engine.getField();
+            int infected = 0;
+            for (long cell = field.nextOccupiedCell(0); cell >= 0; cell = field.nextOccupiedCell(cell + 1)) {
+                if (field.getSpeciesAt(cell).isInfected()) {
+                    infected++;
+                }
+            }
+            assertEquals(infected, engine.getInfectedCount());
+            mostInfected = Math.max(mostInfected, infected);
+        }
+        assertTrue(mostInfected > 0, "no species was ever infected");
+    }
+
+    /**
+     * @return the count of each type of species
+     */
+    private static int[] counts(FieldStats stats) {
+        int[] counts = new int[SpeciesTypes.count()];
+        for (int typeId = 0; typeId < counts.length; typeId++) {
+            counts[typeId] = stats.getCount(typeId);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,140 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of steps run tile by tile on several threads.
+ *
+ * @author Areeba Safdar(K20045738) and Sabeeka Ahmad(K20012890)
+ */
+class TileSchedulerTest {
+
+    @Test
+    void parallelStepsKeepTheFieldAndSpeciesListInStep() {
+        Field field = new Field(60, 60);
+        List<Species> species = populate(field, new Random(1));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TileScheduler scheduler = new TileScheduler(field, 8, pool);
+            for (int step = 1; step <= 30; step++) {
+                field.setStep(step);
+                scheduler.step(species, step, DayCycle.isDay(step), null, null);
+                assertConsistent(field, species);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parallelRunsWithRandomStreamsAreRepeatable() {
+        String run = runWithStreams(4);
+        assertEquals(run, runWithStreams(4));
+        assertEquals(run, runWithStreams(1));
+        assertNotEquals(runWithStreams(4, 43), run);
+    }
+
+    private static String runWithStreams(int threads) {
+        return runWithStreams(threads, 42);
+    }
+
+    /**
+     * Run a small simulation tile by tile with random streams.
+     *
+     * @param threads the number of threads to run the tiles on
+     * @param seed    the seed of the random streams
+     * @return the population after each step and a hash of the final field
+     */
+    private static String runWithStreams(int threads, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SimulationEngine engine = new SimulationEngine(60, 60);
+            engine.useRandomStreams(seed);
+            engine.useTileScheduler(8, pool);
+            StringBuilder run = new StringBuilder();
+            for (int step = 0; step < 30; step++) {
+                engine.simulateOneStep();
+                run.append(engine.getPopulationDetails()).append('\n');
+            }
+            return run.append(fieldHash(engine.getField())).toString();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @return a hash of the type and infection of every cell of the field
+     */
+    static long fieldHash(Field field) {
+        long hash = 0;
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                Species specie = field.getSpeciesAt(row, col);
+                int code = specie == null ? -1
+                        : specie.isInfected() ? 100 + specie.getTypeId() : specie.getTypeId();
+                hash = hash * 31 + code;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Fill about a third of the field with species of every type.
+     *
+     * @return the species, in the order they were made
+     */
+    static List<Species> populate(Field field, Random rand) {
+        List<Species> species = new ArrayList<>();
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                switch (rand.nextInt(15)) {
+                    case 0 -> species.add(new Dragon(true, field, field.getCell(row, col)));
+                    case 1 -> species.add(new Human(true, field, field.getCell(row, col)));
+                    case 2 -> species.add(new Zombie(true, field, field.getCell(row, col)));
+                    case 3 -> species.add(new HellHound(true, field, field.getCell(row, col)));
+                    case 4 -> species.add(new Grass(true, field, field.getCell(row, col)));
+                    default -> { }
+                }
+            }
+        }
+        return species;
+    }
+
+    /**
+     * Check that every species in the list is listed once and, if it is
+     * alive, in its cell of the field, and that no other cell is occupied.
+     * Newborns eaten in the step they were born in are still listed, as
+     * in a step run on a single thread.
+     */
+    private static void assertConsistent(Field field, List<Species> species) {
+        Set<Species> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+        int alive = 0;
+        for (Species specie : species) {
+            assertTrue(listed.add(specie), "listed twice");
+            if (specie.isAlive()) {
+                assertSame(specie, field.getSpeciesAt(specie.getCell()));
+                alive++;
+            }
+        }
+        int occupied = 0;
+        for (int row = 0; row < field.getDepth(); row++) {
+            for (int col = 0; col < field.getWidth(); col++) {
+                if (field.getSpeciesAt(row, col) != null) {
+                    occupied++;
+                }
+            }
+        }
+        assertEquals(alive, occupied);
+    }
+}